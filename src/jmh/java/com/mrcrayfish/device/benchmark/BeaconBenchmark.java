@@ -0,0 +1,108 @@
+package com.mrcrayfish.device.benchmark;
+
+import com.mrcrayfish.device.core.network.DeviceIndex;
+import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
+import com.mrcrayfish.device.tileentity.TileEntityPrinter;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the devices around every router by scanning each block of the signal range,
+ * as routers used to, against querying the {@link DeviceIndex}. The world is stood in for by a
+ * map of positions to tile entities, which is cheaper than a real chunk lookup, so the scan
+ * results are a lower bound.
+ *
+ * Author: MrCrayfish
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeaconBenchmark
+{
+    private static final int ROUTERS = 100;
+    private static final int DEVICES = 2000;
+    private static final int AREA = 256;
+    private static final int HEIGHT = 64;
+
+    @Param({"10", "20", "30", "40"})
+    public int range;
+
+    private final List<BlockPos> routers = new ArrayList<>();
+    private final Map<BlockPos, TileEntity> world = new HashMap<>();
+    private DeviceIndex index;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+        index = new DeviceIndex();
+        for(int i = 0; i < DEVICES; i++)
+        {
+            BlockPos pos = new BlockPos(random.nextInt(AREA), random.nextInt(HEIGHT), random.nextInt(AREA));
+            TileEntityNetworkDevice device = new TileEntityPrinter();
+            device.setPos(pos);
+            world.put(pos, device);
+            index.add(device);
+        }
+        for(int i = 0; i < ROUTERS; i++)
+        {
+            routers.add(new BlockPos(random.nextInt(AREA), random.nextInt(HEIGHT), random.nextInt(AREA)));
+        }
+    }
+
+    @Benchmark
+    public void cubeScan(Blackhole blackhole)
+    {
+        for(BlockPos router : routers)
+        {
+            for(int y = -range; y < range + 1; y++)
+            {
+                for(int z = -range; z < range + 1; z++)
+                {
+                    for(int x = -range; x < range + 1; x++)
+                    {
+                        TileEntity tileEntity = world.get(new BlockPos(router.getX() + x, router.getY() + y, router.getZ() + z));
+                        if(tileEntity instanceof TileEntityNetworkDevice)
+                        {
+                            blackhole.consume(tileEntity);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void indexQuery(Blackhole blackhole)
+    {
+        for(BlockPos router : routers)
+        {
+            for(TileEntityNetworkDevice device : index.getDevicesInRange(router, range))
+            {
+                blackhole.consume(device);
+            }
+        }
+    }
+}
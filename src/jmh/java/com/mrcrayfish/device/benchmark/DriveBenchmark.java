@@ -0,0 +1,117 @@
+package com.mrcrayfish.device.benchmark;
+
+import com.mrcrayfish.device.core.io.FileSystem;
+import com.mrcrayfish.device.core.io.ServerFolder;
+import com.mrcrayfish.device.core.io.action.FileAction;
+import com.mrcrayfish.device.core.io.drive.AbstractDrive;
+import net.minecraft.nbt.NBTTagCompound;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures path lookups and file actions the same way they are handled when received from a
+ * client. The actions used here do not need a file system or world.
+ *
+ * Author: MrCrayfish
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriveBenchmark
+{
+    @Param({"WIDE", "DEEP", "MIXED"})
+    public SyntheticDrive shape;
+
+    private AbstractDrive drive;
+    private String path;
+
+    private FileAction actionNew;
+    private FileAction actionDelete;
+    private FileAction actionRenameForward;
+    private FileAction actionRenameBack;
+    private FileAction actionData;
+
+    @Setup
+    public void setup()
+    {
+        drive = shape.create();
+        path = shape.getDeepestPath();
+
+        NBTTagCompound fileTag = new NBTTagCompound();
+        fileTag.setString("openingApp", "cdm:note_stash");
+        fileTag.setTag("data", SyntheticDrive.createData(0));
+
+        NBTTagCompound newData = createActionData("Benchmark");
+        newData.setTag("data", fileTag);
+        actionNew = createAction(FileAction.Type.NEW, newData);
+        actionDelete = createAction(FileAction.Type.DELETE, createActionData("Benchmark"));
+
+        NBTTagCompound renameForward = createActionData("File 0");
+        renameForward.setString("new_file_name", "Renamed");
+        actionRenameForward = createAction(FileAction.Type.RENAME, renameForward);
+
+        NBTTagCompound renameBack = createActionData("Renamed");
+        renameBack.setString("new_file_name", "File 0");
+        actionRenameBack = createAction(FileAction.Type.RENAME, renameBack);
+
+        NBTTagCompound data = createActionData("File 0");
+        data.setTag("data", SyntheticDrive.createData(1));
+        actionData = createAction(FileAction.Type.DATA, data);
+    }
+
+    @Benchmark
+    public ServerFolder getFolder()
+    {
+        return drive.getFolder(path);
+    }
+
+    @Benchmark
+    public FileSystem.Response handleNewAndDelete()
+    {
+        drive.handleFileAction(null, actionNew, null);
+        return drive.handleFileAction(null, actionDelete, null);
+    }
+
+    @Benchmark
+    public FileSystem.Response handleRename()
+    {
+        drive.handleFileAction(null, actionRenameForward, null);
+        return drive.handleFileAction(null, actionRenameBack, null);
+    }
+
+    @Benchmark
+    public FileSystem.Response handleData()
+    {
+        return drive.handleFileAction(null, actionData, null);
+    }
+
+    private NBTTagCompound createActionData(String fileName)
+    {
+        NBTTagCompound data = new NBTTagCompound();
+        data.setString("directory", path);
+        data.setString("file_name", fileName);
+        return data;
+    }
+
+    private static FileAction createAction(FileAction.Type type, NBTTagCompound data)
+    {
+        NBTTagCompound actionTag = new NBTTagCompound();
+        actionTag.setInteger("type", type.ordinal());
+        actionTag.setTag("data", data);
+        return FileAction.fromTag(actionTag);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mrcrayfish.device.benchmark;
+
+import com.mrcrayfish.device.core.io.ServerFile;
+import com.mrcrayfish.device.core.io.ServerFolder;
+import com.mrcrayfish.device.core.io.drive.AbstractDrive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Author: MrCrayfish
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FolderBenchmark
+{
+    @Param({"WIDE", "DEEP", "MIXED"})
+    public SyntheticDrive shape;
+
+    private AbstractDrive drive;
+    private ServerFolder folder;
+    private String lastFileName;
+
+    @Setup
+    public void setup()
+    {
+        drive = shape.create();
+        folder = drive.getFolder(shape.getDeepestPath());
+        lastFileName = "File " + (shape.getFilesPerFolder() - 1);
+    }
+
+    @Benchmark
+    public ServerFile getFile()
+    {
+        return folder.getFile(lastFileName);
+    }
+
+    @Benchmark
+    public boolean hasFile()
+    {
+        return folder.hasFile("Missing");
+    }
+
+    @Benchmark
+    public Object addAndDelete()
+    {
+        folder.add(new ServerFile("Benchmark", "cdm:note_stash", SyntheticDrive.createData(0)), false);
+        return folder.delete("Benchmark");
+    }
+
+    @Benchmark
+    public List<ServerFile> searchDrive()
+    {
+        return drive.getRoot(null).search(file -> file.getName().endsWith("0"), true);
+    }
+
+    @Benchmark
+    public ServerFile copyFolder()
+    {
+        return folder.copy();
+    }
+}
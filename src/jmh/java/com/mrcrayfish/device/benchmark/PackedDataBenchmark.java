@@ -0,0 +1,94 @@
+package com.mrcrayfish.device.benchmark;
+
+import com.mrcrayfish.device.core.io.PackedData;
+import net.minecraft.nbt.NBTTagCompound;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading packed file data through the decode cache, and the heap the cache holds on to
+ * once it is full. The files are read in a cycle so the cache keeps evicting once the files no
+ * longer fit in the budget. The retained heap is printed after each iteration.
+ *
+ * Author: MrCrayfish
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackedDataBenchmark
+{
+    private static final int FILES = 512;
+
+    /* The approximate size of the content of each file in bytes */
+    @Param({"1024", "65536"})
+    public int fileSize;
+
+    private byte[][] packed;
+    private int next;
+
+    @Setup
+    public void setup()
+    {
+        packed = new byte[FILES][];
+        for(int i = 0; i < FILES; i++)
+        {
+            packed[i] = PackedData.pack(createData(i, fileSize));
+        }
+    }
+
+    @Benchmark
+    public NBTTagCompound unpack()
+    {
+        NBTTagCompound tag = PackedData.unpack(packed[next]);
+        next = (next + 1) % FILES;
+        return tag;
+    }
+
+    @TearDown(Level.Iteration)
+    public void measureHeap()
+    {
+        long full = getUsedHeap();
+        long counted = PackedData.getCachedSize();
+        PackedData.clearCache();
+        long empty = getUsedHeap();
+        System.out.printf("Decode cache: %d KB retained on the heap, %d KB counted, %d KB budget%n", (full - empty) / 1024, counted / 1024, PackedData.CACHE_BUDGET / 1024);
+    }
+
+    private static long getUsedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++)
+        {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static NBTTagCompound createData(int seed, int size)
+    {
+        NBTTagCompound data = SyntheticDrive.createData(seed);
+        StringBuilder builder = new StringBuilder(size);
+        while(builder.length() < size)
+        {
+            builder.append(seed).append(' ');
+        }
+        data.setString("content", builder.toString());
+        return data;
+    }
+}
@@ -0,0 +1,99 @@
+package com.mrcrayfish.device.benchmark;
+
+import com.mrcrayfish.device.core.io.FileSystem;
+import com.mrcrayfish.device.core.io.ServerFolder;
+import com.mrcrayfish.device.core.io.drive.AbstractDrive;
+import net.minecraft.nbt.NBTTagCompound;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving and loading a whole file system, which happens every time a laptop is saved or
+ * loaded with its chunk.
+ *
+ * Author: MrCrayfish
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark
+{
+    @Param({"WIDE", "DEEP", "MIXED"})
+    public SyntheticDrive shape;
+
+    private FileSystem fileSystem;
+    private NBTTagCompound fileSystemTag;
+    private NBTTagCompound rootTag;
+
+    @Setup
+    public void setup()
+    {
+        AbstractDrive drive = shape.create();
+        fileSystemTag = new NBTTagCompound();
+        fileSystemTag.setTag("main_drive", drive.toTag());
+
+        /* The file system only needs the laptop when it has to create a new main drive */
+        fileSystem = new FileSystem(null, fileSystemTag);
+        rootTag = drive.getRoot(null).toTag();
+    }
+
+    /**
+     * Saves a file system that has not been saved since it was loaded, so every folder is
+     * written. This is the cost of the first save after a laptop is loaded.
+     */
+    @Benchmark
+    public NBTTagCompound fileSystemToTag(UnsavedFileSystem unsaved)
+    {
+        return unsaved.fileSystem.toTag();
+    }
+
+    /**
+     * Saves a file system with nothing changed since the last save, so every folder reuses its
+     * cached tag.
+     */
+    @Benchmark
+    public NBTTagCompound fileSystemToTagCached()
+    {
+        return fileSystem.toTag();
+    }
+
+    @Benchmark
+    public FileSystem fileSystemLoad()
+    {
+        return new FileSystem(null, fileSystemTag);
+    }
+
+    @Benchmark
+    public ServerFolder folderFromTag()
+    {
+        return ServerFolder.fromTag("Root", rootTag);
+    }
+
+    @State(Scope.Thread)
+    public static class UnsavedFileSystem
+    {
+        private FileSystem fileSystem;
+
+        /* Loading is not measured, it only makes sure none of the folders have a cached tag */
+        @Setup(Level.Invocation)
+        public void setup(SerializationBenchmark benchmark)
+        {
+            fileSystem = new FileSystem(null, benchmark.fileSystemTag);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.mrcrayfish.device.benchmark;
+
+import com.mrcrayfish.device.core.io.ServerFile;
+import com.mrcrayfish.device.core.io.ServerFolder;
+import com.mrcrayfish.device.core.io.drive.AbstractDrive;
+import com.mrcrayfish.device.core.io.drive.InternalDrive;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * Builds drives with a known shape for the benchmarks. No world or laptop is needed.
+ *
+ * Author: MrCrayfish
+ */
+public enum SyntheticDrive
+{
+    /**
+     * A single folder containing a large amount of files
+     */
+    WIDE(1, 1, 1000),
+
+    /**
+     * A chain of folders as deep as paths allow, with a few files in each
+     */
+    DEEP(9, 1, 10),
+
+    /**
+     * A tree of folders with a few files in each
+     */
+    MIXED(3, 6, 4);
+
+    private final int depth;
+    private final int folders;
+    private final int files;
+
+    SyntheticDrive(int depth, int folders, int files)
+    {
+        this.depth = depth;
+        this.folders = folders;
+        this.files = files;
+    }
+
+    public AbstractDrive create()
+    {
+        AbstractDrive drive = new InternalDrive("Benchmark");
+        populate(drive.getRoot(null), depth);
+        return drive;
+    }
+
+    private void populate(ServerFolder folder, int remaining)
+    {
+        if(remaining <= 0)
+            return;
+
+        for(int i = 0; i < folders; i++)
+        {
+            ServerFolder child = new ServerFolder("Folder " + i);
+            for(int j = 0; j < files; j++)
+            {
+                child.add(new ServerFile("File " + j, "cdm:note_stash", createData(j)), false);
+            }
+            folder.add(child, false);
+            populate(child, remaining - 1);
+        }
+    }
+
+    /**
+     * Gets the path of the deepest folder of the drive.
+     *
+     * @return the path
+     */
+    public String getDeepestPath()
+    {
+        StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < depth; i++)
+        {
+            builder.append("/Folder ").append(folders - 1);
+        }
+        return builder.toString();
+    }
+
+    public int getFilesPerFolder()
+    {
+        return files;
+    }
+
+    public static NBTTagCompound createData(int seed)
+    {
+        NBTTagCompound data = new NBTTagCompound();
+        data.setString("title", "Note " + seed);
+        data.setString("content", "The quick brown fox jumps over the lazy dog. Entry number " + seed + " of the benchmark data set.");
+        data.setLong("created", 1500000000000L + seed);
+        return data;
+    }
+}
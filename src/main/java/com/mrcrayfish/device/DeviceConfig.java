@@ -16,11 +16,20 @@ public class DeviceConfig
 {
     private static final String CATEGORY_LAPTOP = "laptop-settings";
     private static int pingRate;
+    private static int fileCacheSize;
+    private static int fileJobBudget;
+    private static int maxStreamSize;
+    private static int fileHistoryDepth;
 
     private static final String CATEGORY_ROUTER = "router-settings";
     private static int signalRange;
     private static int beaconInterval;
+    private static int sweepBudget;
     private static int maxDevices;
+    private static int bandwidth;
+    private static int latency;
+    private static int maxQueueSize;
+    private static int meshRange;
 
     private static final String CATEGORY_PRINTING = "printer-settings";
     private static boolean overridePrintSpeed;
@@ -42,10 +51,19 @@ public class DeviceConfig
     private static void init()
     {
         pingRate = config.get(CATEGORY_LAPTOP, "pingRate", 20, "The amount of ticks the laptop waits until sending another ping to it's connected router.", 1, 200).getInt();
-
-        signalRange = config.get(CATEGORY_ROUTER, "signalRange", 20, "The range that routers can produce a signal to devices. This is the radius in blocks. Be careful when increasing this value, the performance is O(n^3) and larger numbers will have a bigger impact on the server", 10, 100).getInt();
-        beaconInterval = config.get(CATEGORY_ROUTER, "beaconInterval", 20, "The amount of ticks the router waits before sending out a beacon signal. Higher number will increase performance but devices won't know as quick if they lost connection.", 1, 200).getInt();
+        fileJobBudget = config.get(CATEGORY_LAPTOP, "fileJobBudget", 256, "The amount of files the server copies per tick when copying or moving large folders. Folders containing more files than this are copied over multiple ticks.", 16, 8192).getInt();
+        maxStreamSize = config.get(CATEGORY_LAPTOP, "maxStreamSize", 2048, "The maximum size in kilobytes of compressed data that can be written to a file using a stream.", 64, 65536).getInt();
+        fileHistoryDepth = config.get(CATEGORY_LAPTOP, "fileHistoryDepth", 5, "The amount of previous versions kept for every file, so overwritten data can be restored. Set to 0 to disable file history.", 0, 50).getInt();
+        fileCacheSize = config.get(CATEGORY_LAPTOP, "fileCacheSize", 4096, "The amount of memory in kilobytes the client can use to cache file data received from laptops. Set to 0 to disable the cache.", 0, 65536).getInt();
+
+        signalRange = config.get(CATEGORY_ROUTER, "signalRange", 20, "The range that routers can produce a signal to devices. This is the radius in blocks.", 10, 100).getInt();
+        beaconInterval = config.get(CATEGORY_ROUTER, "beaconInterval", 600, "The amount of ticks between checks that routers and devices are still connected. Connections are updated as soon as routers and devices are placed, broken, loaded or unloaded, so this is only a safety net.", 20, 6000).getInt();
+        sweepBudget = config.get(CATEGORY_ROUTER, "sweepBudget", 8, "The maximum amount of routers and devices that check their connections in a single tick. Checks over the limit wait for the next tick.", 1, 1024).getInt();
         maxDevices = config.get(CATEGORY_ROUTER, "maxDevices", 16, "The maximum amount of devices that can be connected to the router.", 1, 64).getInt();
+        bandwidth = config.get(CATEGORY_ROUTER, "bandwidth", 2048, "The amount of bytes a router can deliver to devices every tick. Messages larger than this take multiple ticks to be delivered.", 64, 1048576).getInt();
+        latency = config.get(CATEGORY_ROUTER, "latency", 2, "The amount of ticks it takes for a message to pass through a router.", 0, 100).getInt();
+        meshRange = config.get(CATEGORY_ROUTER, "meshRange", 40, "The range in blocks routers link to other routers to form a single network. Routers can also be linked with an ethernet cable. Set to 0 to only link routers with cables.", 0, 200).getInt();
+        maxQueueSize = config.get(CATEGORY_ROUTER, "maxQueueSize", 512, "The maximum size in kilobytes of the messages waiting to be delivered by a router. Messages sent while the queue is full are dropped.", 16, 65536).getInt();
 
         overridePrintSpeed = config.get(CATEGORY_PRINTING, "overridePrintSpeed", false, "If enable, overrides all printing times with customPrintSpeed property").getBoolean();
         customPrintSpeed = config.get(CATEGORY_PRINTING, "customPrintSpeed", 20, "The amount of seconds it should take for the printer to addToQueue a document", 1, 600).getInt();
@@ -96,6 +114,26 @@ public class DeviceConfig
         return pingRate;
     }
 
+    public static int getFileCacheSize()
+    {
+        return fileCacheSize;
+    }
+
+    public static int getFileJobBudget()
+    {
+        return fileJobBudget;
+    }
+
+    public static int getMaxStreamSize()
+    {
+        return maxStreamSize;
+    }
+
+    public static int getFileHistoryDepth()
+    {
+        return fileHistoryDepth;
+    }
+
     public static int getSignalRange()
     {
         return signalRange;
@@ -106,11 +144,36 @@ public class DeviceConfig
         return beaconInterval;
     }
 
+    public static int getSweepBudget()
+    {
+        return sweepBudget;
+    }
+
     public static int getMaxDevices()
     {
         return maxDevices;
     }
 
+    public static int getBandwidth()
+    {
+        return bandwidth;
+    }
+
+    public static int getLatency()
+    {
+        return latency;
+    }
+
+    public static int getMaxQueueSize()
+    {
+        return maxQueueSize;
+    }
+
+    public static int getMeshRange()
+    {
+        return meshRange;
+    }
+
     public static boolean isOverridePrintSpeed()
     {
         return overridePrintSpeed;
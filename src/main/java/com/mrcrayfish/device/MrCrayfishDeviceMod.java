@@ -3,10 +3,18 @@ package com.mrcrayfish.device;
 import com.mrcrayfish.device.api.ApplicationManager;
 import com.mrcrayfish.device.api.print.PrintingManager;
 import com.mrcrayfish.device.api.task.TaskManager;
+import com.mrcrayfish.device.core.io.BulkJobManager;
+import com.mrcrayfish.device.core.io.FileStreamManager;
+import com.mrcrayfish.device.core.io.FileWatchManager;
 import com.mrcrayfish.device.core.io.task.*;
+import com.mrcrayfish.device.core.network.NetworkDiagnostics;
+import com.mrcrayfish.device.core.network.NetworkScheduler;
 import com.mrcrayfish.device.core.network.task.TaskConnect;
 import com.mrcrayfish.device.core.network.task.TaskGetDevices;
+import com.mrcrayfish.device.core.network.task.TaskGetRouters;
 import com.mrcrayfish.device.core.network.task.TaskPing;
+import com.mrcrayfish.device.core.network.task.TaskSendMessage;
+import com.mrcrayfish.device.core.network.task.TaskWatchNetwork;
 import com.mrcrayfish.device.core.print.task.TaskPrint;
 import com.mrcrayfish.device.core.task.TaskInstallApp;
 import com.mrcrayfish.device.entity.EntitySeat;
@@ -26,9 +34,11 @@ import com.mrcrayfish.device.programs.gitweb.ApplicationGitWeb;
 import com.mrcrayfish.device.programs.system.ApplicationAppStore;
 import com.mrcrayfish.device.programs.system.ApplicationBank;
 import com.mrcrayfish.device.programs.system.ApplicationFileBrowser;
+import com.mrcrayfish.device.programs.system.ApplicationNetworkDiagnostics;
 import com.mrcrayfish.device.programs.system.ApplicationSettings;
 import com.mrcrayfish.device.programs.system.task.*;
 import com.mrcrayfish.device.proxy.CommonProxy;
+import com.mrcrayfish.device.tileentity.TileEntitySyncManager;
 import net.minecraft.creativetab.CreativeTabs;
 import net.minecraft.launchwrapper.Launch;
 import net.minecraft.util.ResourceLocation;
@@ -91,6 +101,12 @@ public class MrCrayfishDeviceMod
 
 		MinecraftForge.EVENT_BUS.register(new EmailEvents());
 		MinecraftForge.EVENT_BUS.register(new BankEvents());
+		MinecraftForge.EVENT_BUS.register(BulkJobManager.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(FileStreamManager.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(FileWatchManager.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(NetworkScheduler.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(NetworkDiagnostics.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(TileEntitySyncManager.INSTANCE);
 
 		registerApplications();
 
@@ -114,6 +130,7 @@ public class MrCrayfishDeviceMod
 		ApplicationManager.registerApplication(new ResourceLocation(Reference.MOD_ID, "pixel_painter"), ApplicationPixelPainter.class);
 		ApplicationManager.registerApplication(new ResourceLocation(Reference.MOD_ID, "ender_mail"), ApplicationEmail.class);
 		ApplicationManager.registerApplication(new ResourceLocation(Reference.MOD_ID, "app_store"), ApplicationAppStore.class);
+		ApplicationManager.registerApplication(new ResourceLocation(Reference.MOD_ID, "network_diagnostics"), ApplicationNetworkDiagnostics.class);
 
 		// Core
 		TaskManager.registerTask(TaskInstallApp.class);
@@ -123,6 +140,9 @@ public class MrCrayfishDeviceMod
 		TaskManager.registerTask(TaskConnect.class);
 		TaskManager.registerTask(TaskPing.class);
 		TaskManager.registerTask(TaskGetDevices.class);
+		TaskManager.registerTask(TaskGetRouters.class);
+		TaskManager.registerTask(TaskSendMessage.class);
+		TaskManager.registerTask(TaskWatchNetwork.class);
 
 		//Bank
 		TaskManager.registerTask(TaskDeposit.class);
@@ -138,6 +158,14 @@ public class MrCrayfishDeviceMod
 		TaskManager.registerTask(TaskGetFiles.class);
 		TaskManager.registerTask(TaskGetStructure.class);
 		TaskManager.registerTask(TaskGetMainDrive.class);
+		TaskManager.registerTask(TaskGetJobProgress.class);
+		TaskManager.registerTask(TaskCancelJob.class);
+		TaskManager.registerTask(TaskOpenStream.class);
+		TaskManager.registerTask(TaskReadChunk.class);
+		TaskManager.registerTask(TaskWriteChunk.class);
+		TaskManager.registerTask(TaskCloseStream.class);
+		TaskManager.registerTask(TaskWatchFolder.class);
+		TaskManager.registerTask(TaskGetFileHistory.class);
 
 		//Ender Mail
 		TaskManager.registerTask(TaskUpdateInbox.class);
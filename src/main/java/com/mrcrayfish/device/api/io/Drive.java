@@ -1,7 +1,9 @@
 package com.mrcrayfish.device.api.io;
 
+import com.mrcrayfish.device.core.io.FileCache;
 import com.mrcrayfish.device.core.io.FileSystem;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.common.util.Constants;
 
 import javax.annotation.Nullable;
 import java.util.UUID;
@@ -23,6 +25,10 @@ public class Drive
         this.name = driveTag.getString("name");
         this.uuid = UUID.fromString(driveTag.getString("uuid"));
         this.type = Type.fromString(driveTag.getString("type"));
+        if(driveTag.hasKey("version", Constants.NBT.TAG_INT))
+        {
+            FileCache.INSTANCE.updateVersion(uuid, driveTag.getInteger("version"));
+        }
     }
 
     /**
@@ -126,6 +132,26 @@ public class Drive
         return null;
     }
 
+    /**
+     * Do not use! Applies a change made to this drive by another player
+     *
+     * @param change the change received from the server
+     * @return the folder that was changed, or null if it is not loaded on this drive
+     */
+    @Nullable
+    public Folder applyChange(NBTTagCompound change)
+    {
+        if(root == null)
+            return null;
+
+        Folder folder = getFolder(change.getString("directory"));
+        if(folder != null)
+        {
+            folder.handleChange(change);
+        }
+        return folder;
+    }
+
     @Override
     public String toString()
     {
@@ -2,13 +2,23 @@ package com.mrcrayfish.device.api.io;
 
 import com.mrcrayfish.device.api.app.Application;
 import com.mrcrayfish.device.api.task.Callback;
+import com.mrcrayfish.device.api.task.TaskManager;
+import com.mrcrayfish.device.core.io.FileCache;
+import com.mrcrayfish.device.core.io.FileStreamManager;
 import com.mrcrayfish.device.core.io.FileSystem;
+import com.mrcrayfish.device.core.io.PackedData;
 import com.mrcrayfish.device.core.io.action.FileAction;
+import com.mrcrayfish.device.core.io.task.TaskGetFileHistory;
 import com.mrcrayfish.device.programs.system.component.FileBrowser;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraftforge.common.util.Constants;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
 
 public class File
 {
@@ -204,7 +214,8 @@ public class File
 	/**
 	 * Sets the data for the file and allows a callback to be specified. This method is
 	 * asynchronous, so data will not be set immediately. The callback is fired when the data is
-	 * set, however it is not necessarily successful.
+	 * set, however it is not necessarily successful. Data that is too large to be sent in a single
+	 * task is written in chunks using a {@link FileHandle}.
 	 *
 	 * @param data
 	 * @param callback
@@ -232,6 +243,13 @@ public class File
 			return;
 		}
 
+		/* The file action sends the data uncompressed, so it has to fit in a packet as is */
+		if(PackedData.sizeOf(data) > FileStreamManager.CHUNK_SIZE)
+		{
+			FileHandle.writeData(this, data, PackedData.pack(data), callback);
+			return;
+		}
+
 		FileSystem.sendAction(drive, FileAction.Factory.makeData(this, data), (response, success) ->
 		{
 			if(success)
@@ -245,6 +263,84 @@ public class File
         });
 	}
 
+	/**
+	 * Gets the times of the previous versions of this file's data, most recent first. The index of
+	 * a time in the list can be passed to {@link #restore(int, Callback)}. The amount of versions
+	 * kept is set in the server config.
+	 *
+	 * @param callback the callback to receive the times in milliseconds
+	 */
+	public void getHistory(Callback<List<Long>> callback)
+	{
+		if(!valid || drive == null || isFolder())
+		{
+			callback.execute(null, false);
+			return;
+		}
+
+		TaskGetFileHistory task = new TaskGetFileHistory(this);
+		task.setCallback((nbt, success) ->
+		{
+			if(success)
+			{
+				List<Long> times = new ArrayList<>();
+				NBTTagList history = nbt.getTagList("history", Constants.NBT.TAG_COMPOUND);
+				for(int i = 0; i < history.tagCount(); i++)
+				{
+					times.add(history.getCompoundTagAt(i).getLong("time"));
+				}
+				callback.execute(times, true);
+			}
+			else
+			{
+				callback.execute(null, false);
+			}
+		});
+		TaskManager.sendTask(task);
+	}
+
+	/**
+	 * Restores the data of this file to a previous version. The current data is kept in the
+	 * history, so the restore can be undone. See {@link #getHistory(Callback)} to get the
+	 * available versions.
+	 *
+	 * @param revision the index of the version, 0 being the most recent
+	 * @param callback the response callback
+	 */
+	public void restore(int revision, @Nullable Callback<FileSystem.Response> callback)
+	{
+		if(!valid)
+			throw new IllegalStateException("File must be added to the system before you can restore it");
+
+		if(protect)
+		{
+			if(callback != null)
+			{
+				callback.execute(FileSystem.createResponse(FileSystem.Status.FILE_IS_PROTECTED, "Cannot restore a protected file"), false);
+			}
+			return;
+		}
+
+		FileSystem.sendAction(drive, FileAction.Factory.makeRestore(this, revision), (response, success) ->
+		{
+			if(response.getStatus() != FileSystem.Status.SUCCESSFUL)
+			{
+				if(callback != null)
+				{
+					callback.execute(response, false);
+				}
+				return;
+			}
+			FileHandle.readData(this, (data, success1) ->
+			{
+				if(callback != null)
+				{
+					callback.execute(response, success1);
+				}
+			});
+		});
+	}
+
 	/**
 	 * Gets the data of this file. The data you receive is a copied version. If you want to update
 	 * it, use {@link #setData(NBTTagCompound, Callback)} to do so.
@@ -407,18 +503,13 @@ public class File
 
 		FileSystem.sendAction(drive, FileAction.Factory.makeCopyCut(this, destination, override, false), (response, success) ->
 		{
-			if(response.getStatus() == FileSystem.Status.SUCCESSFUL)
+			if(response.getStatus() == FileSystem.Status.JOB_QUEUED)
 			{
-				if(override)
-				{
-					destination.files.remove(destination.getFile(name));
-				}
-				File file = copy();
-				file.valid = true;
-				file.parent = destination;
-				file.setDrive(destination.drive);
-				destination.files.add(file);
-				FileBrowser.refreshList = true;
+				trackJob(response, destination, callback, () -> applyCopy(destination, override));
+			}
+			else if(response.getStatus() == FileSystem.Status.SUCCESSFUL)
+			{
+				applyCopy(destination, override);
 			}
 			if(callback != null)
 			{
@@ -427,6 +518,20 @@ public class File
 		});
 	}
 
+	private void applyCopy(Folder destination, boolean override)
+	{
+		if(override)
+		{
+			destination.files.remove(destination.getFile(name));
+		}
+		File file = copy();
+		file.valid = true;
+		file.parent = destination;
+		file.setDrive(destination.drive);
+		destination.files.add(file);
+		FileBrowser.markChanged(destination);
+	}
+
 	public void moveTo(Folder destination, boolean override, @Nullable Callback<FileSystem.Response> callback)
 	{
 		if(destination == null)
@@ -487,17 +592,13 @@ public class File
 
 		FileSystem.sendAction(drive, FileAction.Factory.makeCopyCut(this, destination, override, true), (response, success) ->
 		{
-			if(response.getStatus() == FileSystem.Status.SUCCESSFUL)
+			if(response.getStatus() == FileSystem.Status.JOB_QUEUED)
 			{
-				if(override)
-				{
-					destination.files.remove(destination.getFile(name));
-				}
-				parent.files.remove(this);
-				setDrive(destination.drive);
-				parent = destination;
-				destination.files.add(this);
-				FileBrowser.refreshList = true;
+				trackJob(response, destination, callback, () -> applyMove(destination, override));
+			}
+			else if(response.getStatus() == FileSystem.Status.SUCCESSFUL)
+			{
+				applyMove(destination, override);
 			}
 			if(callback != null)
 			{
@@ -506,6 +607,48 @@ public class File
 		});
 	}
 
+	private void applyMove(Folder destination, boolean override)
+	{
+		if(override)
+		{
+			destination.files.remove(destination.getFile(name));
+		}
+		if(parent != null)
+		{
+			parent.files.remove(this);
+			FileBrowser.markChanged(parent);
+		}
+		setDrive(destination.drive);
+		parent = destination;
+		destination.files.add(this);
+		FileBrowser.markChanged(destination);
+	}
+
+	/**
+	 * Large folders are copied over multiple ticks on the server. The callback will be fired once
+	 * with the {@link FileSystem.Status#JOB_QUEUED} response and again once the job has finished.
+	 */
+	private void trackJob(FileSystem.Response response, Folder destination, @Nullable Callback<FileSystem.Response> callback, Runnable apply)
+	{
+		Drive sourceDrive = drive;
+		FileJob.track(UUID.fromString(response.getMessage()), (result, success) ->
+		{
+			FileCache.INSTANCE.invalidateTree(sourceDrive.getUUID(), FileSystem.DIR_ROOT);
+			if(destination.drive != null)
+			{
+				FileCache.INSTANCE.invalidateTree(destination.drive.getUUID(), FileSystem.DIR_ROOT);
+			}
+			if(result.getStatus() == FileSystem.Status.SUCCESSFUL)
+			{
+				apply.run();
+			}
+			if(callback != null)
+			{
+				callback.execute(result, success && result.getStatus() == FileSystem.Status.SUCCESSFUL);
+			}
+		});
+	}
+
 	/**
 	 * Converts this file into a tag compound. Due to how the file system works, this tag does not
 	 * include the name of the file and will have to be set manually for any storage.
@@ -0,0 +1,376 @@
+package com.mrcrayfish.device.api.io;
+
+import com.mrcrayfish.device.api.task.Callback;
+import com.mrcrayfish.device.api.task.TaskManager;
+import com.mrcrayfish.device.core.io.FileCache;
+import com.mrcrayfish.device.core.io.FileStreamManager;
+import com.mrcrayfish.device.core.io.FileSystem;
+import com.mrcrayfish.device.core.io.PackedData;
+import com.mrcrayfish.device.core.io.task.TaskCloseStream;
+import com.mrcrayfish.device.core.io.task.TaskOpenStream;
+import com.mrcrayfish.device.core.io.task.TaskReadChunk;
+import com.mrcrayfish.device.core.io.task.TaskWriteChunk;
+import net.minecraft.client.Minecraft;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Reads or writes the whole data of a file in chunks. The data is transferred as the compressed
+ * bytes the server stores it as, split into chunks with only a few of them in flight at a time,
+ * so large files can be transferred without going over the packet size limit or flooding the
+ * connection. Written data is only applied to the file once every chunk has been received.
+ *
+ * The chunks are handled on the client thread, so a transfer is never accessed by two threads.
+ *
+ * Author: MrCrayfish
+ */
+public class FileHandle
+{
+    /**
+     * The amount of chunks that can be waiting for a response at once
+     */
+    private static final int WINDOW = 4;
+
+    private final File file;
+    private final UUID id;
+    private final Mode mode;
+    private final int length;
+    private boolean closed = false;
+
+    private FileHandle(File file, UUID id, Mode mode, int length)
+    {
+        this.file = file;
+        this.id = id;
+        this.mode = mode;
+        this.length = length;
+    }
+
+    /**
+     * Opens a handle to read the data of the specified file. The data is a snapshot taken when the
+     * handle is opened and will not change while reading.
+     */
+    private static void openRead(File file, Callback<FileHandle> callback)
+    {
+        open(file, Mode.READ, 0, callback);
+    }
+
+    /**
+     * Opens a handle to write data to the specified file. The data must be written completely
+     * before closing the handle.
+     */
+    private static void openWrite(File file, int length, Callback<FileHandle> callback)
+    {
+        if(file.isProtected())
+        {
+            callback.execute(null, false);
+            return;
+        }
+        open(file, Mode.WRITE, length, callback);
+    }
+
+    private static void open(File file, Mode mode, int length, Callback<FileHandle> callback)
+    {
+        if(!file.valid || file.drive == null || file.isFolder())
+        {
+            callback.execute(null, false);
+            return;
+        }
+
+        TaskOpenStream task = new TaskOpenStream(file, mode == Mode.WRITE, length);
+        task.setCallback((nbt, success) ->
+        {
+            if(success)
+            {
+                FileSystem.Response response = FileSystem.Response.fromTag(nbt.getCompoundTag("response"));
+                UUID id = UUID.fromString(response.getMessage());
+                callback.execute(new FileHandle(file, id, mode, mode == Mode.WRITE ? length : nbt.getInteger("length")), true);
+            }
+            else
+            {
+                callback.execute(null, false);
+            }
+        });
+        TaskManager.sendTask(task);
+    }
+
+    /**
+     * Reads all bytes of the file.
+     */
+    private void read(Callback<byte[]> callback)
+    {
+        if(closed || mode != Mode.READ)
+        {
+            callback.execute(null, false);
+            return;
+        }
+
+        byte[] result = new byte[length];
+        new Transfer(length, (chunkOffset, chunkLength, done) ->
+        {
+            TaskReadChunk task = new TaskReadChunk(id, chunkOffset, chunkLength);
+            task.setCallback((nbt, success) ->
+            {
+                byte[] bytes = nbt != null ? nbt.getByteArray("bytes") : null;
+                if(success && bytes != null && bytes.length == chunkLength)
+                {
+                    System.arraycopy(bytes, 0, result, chunkOffset, chunkLength);
+                    done.execute(null, true);
+                }
+                else
+                {
+                    done.execute(null, false);
+                }
+            });
+            TaskManager.sendTask(task);
+        }, success -> callback.execute(success ? result : null, success)).start();
+    }
+
+    /**
+     * Writes all bytes of the file. The bytes are not applied to the file until the handle is
+     * closed.
+     */
+    private void write(byte[] bytes, Callback<FileSystem.Response> callback)
+    {
+        if(closed || mode != Mode.WRITE || bytes.length != length)
+        {
+            callback.execute(FileSystem.createResponse(FileSystem.Status.FILE_INVALID_DATA, "Invalid length"), false);
+            return;
+        }
+
+        new Transfer(bytes.length, (chunkOffset, chunkLength, done) ->
+        {
+            byte[] chunk = new byte[chunkLength];
+            System.arraycopy(bytes, chunkOffset, chunk, 0, chunkLength);
+            TaskWriteChunk task = new TaskWriteChunk(id, chunkOffset, chunk);
+            task.setCallback((nbt, success) -> done.execute(null, success));
+            TaskManager.sendTask(task);
+        }, success ->
+        {
+            if(success)
+            {
+                callback.execute(FileSystem.createSuccessResponse(), true);
+            }
+            else
+            {
+                callback.execute(FileSystem.createResponse(FileSystem.Status.FAILED, "Unable to write data"), false);
+            }
+        }).start();
+    }
+
+    /**
+     * Closes the handle. If the handle was opened for writing, the written data is applied to the
+     * file.
+     */
+    private void close(@Nullable Callback<FileSystem.Response> callback)
+    {
+        close(true, callback);
+    }
+
+    /**
+     * Closes the handle without applying any of the written data.
+     */
+    private void abort()
+    {
+        close(false, null);
+    }
+
+    private void close(boolean commit, @Nullable Callback<FileSystem.Response> callback)
+    {
+        if(closed)
+            return;
+
+        closed = true;
+        TaskCloseStream task = new TaskCloseStream(id, commit);
+        task.setCallback((nbt, success) ->
+        {
+            FileSystem.Response response = FileSystem.Response.fromTag(nbt.getCompoundTag("response"));
+            if(mode == Mode.WRITE && commit && response.getStatus() == FileSystem.Status.SUCCESSFUL)
+            {
+                FileCache.INSTANCE.invalidate(file.drive.getUUID(), file.getLocation());
+            }
+            if(callback != null)
+            {
+                callback.execute(response, success && response.getStatus() == FileSystem.Status.SUCCESSFUL);
+            }
+        });
+        TaskManager.sendTask(task);
+    }
+
+    /**
+     * Reads the whole data of a file using a handle.
+     *
+     * @param file the file to read
+     * @param callback the callback to receive the data
+     */
+    public static void readData(File file, Callback<NBTTagCompound> callback)
+    {
+        openRead(file, (handle, success) ->
+        {
+            if(!success || handle == null)
+            {
+                callback.execute(null, false);
+                return;
+            }
+            handle.read((bytes, success1) ->
+            {
+                handle.close(null);
+                if(!success1 || bytes == null)
+                {
+                    callback.execute(null, false);
+                    return;
+                }
+                try
+                {
+                    NBTTagCompound data = bytes.length > 0 ? CompressedStreamTools.readCompressed(new ByteArrayInputStream(bytes)) : new NBTTagCompound();
+                    file.data = data.copy();
+                    callback.execute(data, true);
+                }
+                catch(IOException e)
+                {
+                    callback.execute(null, false);
+                }
+            });
+        });
+    }
+
+    /**
+     * Writes the whole data of a file using a handle. This is used by
+     * {@link File#setData(NBTTagCompound, Callback)} when the data is too large to be sent in a
+     * single task.
+     *
+     * @param file the file to write to
+     * @param data the new data
+     * @param callback the callback to receive the response
+     */
+    public static void writeData(File file, NBTTagCompound data, @Nullable Callback<FileSystem.Response> callback)
+    {
+        writeData(file, data, PackedData.pack(data), callback);
+    }
+
+    static void writeData(File file, NBTTagCompound data, byte[] packed, @Nullable Callback<FileSystem.Response> callback)
+    {
+        openWrite(file, packed.length, (handle, success) ->
+        {
+            if(!success || handle == null)
+            {
+                if(callback != null)
+                {
+                    callback.execute(FileSystem.createResponse(FileSystem.Status.FAILED, "Unable to open the file for writing"), false);
+                }
+                return;
+            }
+            handle.write(packed, (response, success1) ->
+            {
+                if(!success1)
+                {
+                    handle.abort();
+                    if(callback != null)
+                    {
+                        callback.execute(response, false);
+                    }
+                    return;
+                }
+                handle.close((response1, success2) ->
+                {
+                    if(success2)
+                    {
+                        file.data = data.copy();
+                    }
+                    if(callback != null)
+                    {
+                        callback.execute(response1, success2);
+                    }
+                });
+            });
+        });
+    }
+
+    private enum Mode
+    {
+        READ, WRITE
+    }
+
+    private interface ChunkSender
+    {
+        void send(int offset, int length, Callback<Void> done);
+    }
+
+    private interface Completion
+    {
+        void complete(boolean success);
+    }
+
+    /**
+     * Splits the data into chunks and keeps at most {@link #WINDOW} of them in flight. The next
+     * chunk is only sent once a previous one has been acknowledged. Responses arrive on the
+     * network thread, so they are handed to the client thread before the transfer is updated.
+     */
+    private static class Transfer
+    {
+        private final int end;
+        private final ChunkSender sender;
+        private final Completion completion;
+
+        private int nextOffset;
+        private int inFlight;
+        private boolean failed;
+
+        private Transfer(int length, ChunkSender sender, Completion completion)
+        {
+            this.end = length;
+            this.sender = sender;
+            this.completion = completion;
+        }
+
+        private void start()
+        {
+            Minecraft.getMinecraft().addScheduledTask(() ->
+            {
+                if(nextOffset >= end)
+                {
+                    completion.complete(true);
+                    return;
+                }
+                fill();
+            });
+        }
+
+        private void fill()
+        {
+            while(!failed && inFlight < WINDOW && nextOffset < end)
+            {
+                int chunkOffset = nextOffset;
+                int chunkLength = Math.min(FileStreamManager.CHUNK_SIZE, end - chunkOffset);
+                nextOffset += chunkLength;
+                inFlight++;
+                sender.send(chunkOffset, chunkLength, (v, success) -> Minecraft.getMinecraft().addScheduledTask(() -> onChunkDone(success)));
+            }
+        }
+
+        private void onChunkDone(boolean success)
+        {
+            if(failed)
+                return;
+
+            inFlight--;
+            if(!success)
+            {
+                failed = true;
+                completion.complete(false);
+                return;
+            }
+
+            if(nextOffset >= end && inFlight == 0)
+            {
+                completion.complete(true);
+                return;
+            }
+            fill();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.mrcrayfish.device.api.io;
+
+import com.mrcrayfish.device.api.task.Callback;
+import com.mrcrayfish.device.api.task.TaskManager;
+import com.mrcrayfish.device.core.io.FileSystem;
+import com.mrcrayfish.device.core.io.task.TaskCancelJob;
+import com.mrcrayfish.device.core.io.task.TaskGetJobProgress;
+import net.minecraft.nbt.NBTTagCompound;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks the progress of a large file operation that is being processed over multiple ticks on
+ * the server. When copying or moving a large folder, the callback of the operation is first fired
+ * with a {@link FileSystem.Status#JOB_QUEUED} response. The message of that response is the id
+ * of the job, which can be used with {@link #get(UUID)} to display the progress or cancel it. The
+ * callback is fired a second time once the job has finished.
+ *
+ * Author: MrCrayfish
+ */
+public class FileJob
+{
+    private static final int POLL_INTERVAL = 10;
+
+    private static final Map<UUID, FileJob> JOBS = new HashMap<>();
+
+    private final UUID id;
+    private final Callback<FileSystem.Response> callback;
+
+    private int progress;
+    private int total;
+    private boolean finished = false;
+    private boolean pending = false;
+    private int timer;
+
+    private FileJob(UUID id, Callback<FileSystem.Response> callback)
+    {
+        this.id = id;
+        this.callback = callback;
+    }
+
+    /**
+     * Do not use! Starts tracking a job that was queued on the server
+     *
+     * @param id the id of the job
+     * @param callback the callback to fire once the job has finished
+     */
+    public static void track(UUID id, Callback<FileSystem.Response> callback)
+    {
+        JOBS.put(id, new FileJob(id, callback));
+    }
+
+    /**
+     * Gets a running job from the id given in a {@link FileSystem.Status#JOB_QUEUED} response.
+     *
+     * @param id the id of the job
+     * @return the job or null if it has already finished
+     */
+    @Nullable
+    public static FileJob get(UUID id)
+    {
+        return JOBS.get(id);
+    }
+
+    /**
+     * Do not use! Polls the server for the progress of the running jobs
+     */
+    public static void tick()
+    {
+        new ArrayList<>(JOBS.values()).forEach(job ->
+        {
+            if(++job.timer >= POLL_INTERVAL)
+            {
+                job.update();
+                job.timer = 0;
+            }
+        });
+    }
+
+    /**
+     * Do not use! Stops tracking all jobs. The jobs will continue to run on the server.
+     */
+    public static void clear()
+    {
+        JOBS.clear();
+    }
+
+    private void update()
+    {
+        if(pending || finished)
+            return;
+
+        pending = true;
+        TaskGetJobProgress task = new TaskGetJobProgress(id);
+        task.setCallback((nbt, success) ->
+        {
+            pending = false;
+            if(success)
+            {
+                NBTTagCompound jobTag = nbt.getCompoundTag("job");
+                progress = jobTag.getInteger("progress");
+                total = jobTag.getInteger("total");
+                if(jobTag.getBoolean("finished"))
+                {
+                    finish(FileSystem.Response.fromTag(jobTag.getCompoundTag("response")), true);
+                }
+            }
+            else
+            {
+                finish(FileSystem.createResponse(FileSystem.Status.FAILED, "The operation could not be found on the server"), false);
+            }
+        });
+        TaskManager.sendTask(task);
+    }
+
+    private void finish(FileSystem.Response response, boolean success)
+    {
+        finished = true;
+        JOBS.remove(id);
+        callback.execute(response, success);
+    }
+
+    /**
+     * Requests the server to cancel this job. The drives are left unchanged and the callback is
+     * fired with a failed response once the server has stopped the job.
+     */
+    public void cancel()
+    {
+        TaskManager.sendTask(new TaskCancelJob(id));
+    }
+
+    public UUID getId()
+    {
+        return id;
+    }
+
+    public int getProgress()
+    {
+        return progress;
+    }
+
+    public int getTotal()
+    {
+        return total;
+    }
+
+    public boolean isFinished()
+    {
+        return finished;
+    }
+}
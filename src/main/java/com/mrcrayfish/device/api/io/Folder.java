@@ -4,9 +4,12 @@ import com.mrcrayfish.device.api.task.Callback;
 import com.mrcrayfish.device.api.task.Task;
 import com.mrcrayfish.device.api.task.TaskManager;
 import com.mrcrayfish.device.core.Laptop;
+import com.mrcrayfish.device.core.io.FileCache;
 import com.mrcrayfish.device.core.io.FileSystem;
+import com.mrcrayfish.device.core.io.FileWatchManager;
 import com.mrcrayfish.device.core.io.action.FileAction;
 import com.mrcrayfish.device.core.io.task.TaskGetFiles;
+import com.mrcrayfish.device.core.io.task.TaskGetStructure;
 import com.mrcrayfish.device.programs.system.component.FileBrowser;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -25,6 +28,7 @@ public class Folder extends File
 	protected List<File> files = new ArrayList<>();
 
 	private boolean synced = false;
+	private boolean structureLoaded = true;
 
 	/**
 	 * The default constructor for a folder
@@ -136,7 +140,7 @@ public class Folder extends File
 				file.valid = true;
 				file.parent = this;
 				files.add(file);
-				FileBrowser.refreshList = true;
+				FileBrowser.markChanged(this);
 			}
 			if(callback != null)
 			{
@@ -235,7 +239,7 @@ public class Folder extends File
 				file.valid = false;
 				file.parent = null;
 				files.remove(file);
-				FileBrowser.refreshList = true;
+				FileBrowser.markChanged(this);
 			}
 			if(callback != null)
 			{
@@ -493,12 +497,39 @@ public class Folder extends File
 				return;
 			}
 
-			Task task = new TaskGetFiles(this, pos);
+			if(!structureLoaded)
+			{
+				loadStructure((folder, success) ->
+				{
+					if(success)
+					{
+						sync(callback);
+					}
+					else if(callback != null)
+					{
+						callback.execute(this, false);
+					}
+				});
+				return;
+			}
+
+			/* Cached files are only used once the server confirms the drive hasn't changed since */
+			NBTTagList cachedFiles = FileCache.INSTANCE.get(drive.getUUID(), getPath());
+			Task task = new TaskGetFiles(this, pos, cachedFiles != null ? FileCache.INSTANCE.getVersion(drive.getUUID()) : null);
 			task.setCallback((nbt, success) ->
 			{
-				if(success && nbt.hasKey("files", Constants.NBT.TAG_LIST))
+				if(success && cachedFiles != null && nbt.getBoolean("unchanged"))
+				{
+					syncFiles(cachedFiles);
+					if(callback != null)
+					{
+						callback.execute(this, true);
+					}
+				}
+				else if(success && nbt.hasKey("files", Constants.NBT.TAG_LIST))
 				{
 					NBTTagList files = nbt.getTagList("files", Constants.NBT.TAG_COMPOUND);
+					FileCache.INSTANCE.put(drive.getUUID(), getPath(), files, nbt.getInteger("version"));
 					syncFiles(files);
 					if(callback != null)
 					{
@@ -518,6 +549,117 @@ public class Folder extends File
 		}
 	}
 
+	/**
+	 * Loads the next level of sub folders of this folder. Drives other than the main drive only
+	 * send the structure one level at a time, so the sub folders of a folder are unknown until it
+	 * is opened.
+	 *
+	 * @param callback the callback fired once the structure is loaded
+	 */
+	private void loadStructure(Callback<Folder> callback)
+	{
+		BlockPos pos = Laptop.getPos();
+		if(pos == null)
+		{
+			callback.execute(this, false);
+			return;
+		}
+
+		Task task = new TaskGetStructure(drive, getPath(), 1, pos);
+		task.setCallback((nbt, success) ->
+		{
+			if(success)
+			{
+				NBTTagCompound fileList = nbt.getCompoundTag("structure").getCompoundTag("files");
+				for(String fileName : fileList.getKeySet())
+				{
+					if(!hasFolder(fileName))
+					{
+						Folder folder = Folder.fromTag(fileName, fileList.getCompoundTag(fileName));
+						folder.parent = this;
+						folder.setDrive(drive);
+						folder.validate();
+						files.add(folder);
+					}
+				}
+				structureLoaded = true;
+			}
+			callback.execute(this, success);
+		});
+		TaskManager.sendTask(task);
+	}
+
+	/**
+	 * Do not use! Applies a change made to this folder by another player
+	 *
+	 * @param change the change received from the server
+	 */
+	void handleChange(NBTTagCompound change)
+	{
+		String fileName = change.getString("file_name");
+		File file = getFile(fileName);
+		switch(change.getString("type"))
+		{
+			case FileWatchManager.CHANGE_NEW:
+			{
+				NBTTagCompound fileTag = change.getCompoundTag("file");
+				boolean folder = fileTag.hasKey("files", Constants.NBT.TAG_COMPOUND);
+				if(!folder && !synced)
+					break;
+
+				if(file != null)
+				{
+					files.remove(file);
+				}
+				File newFile = folder ? Folder.fromTag(fileName, fileTag) : File.fromTag(fileName, fileTag);
+				newFile.parent = this;
+				newFile.setDrive(drive);
+				if(newFile.isFolder())
+				{
+					((Folder) newFile).validate();
+				}
+				else
+				{
+					newFile.valid = true;
+				}
+				files.add(newFile);
+				break;
+			}
+			case FileWatchManager.CHANGE_DELETE:
+				if(file != null)
+				{
+					file.drive = null;
+					file.valid = false;
+					file.parent = null;
+					files.remove(file);
+				}
+				break;
+			case FileWatchManager.CHANGE_RENAME:
+				if(file != null)
+				{
+					file.name = change.getString("new_file_name");
+				}
+				break;
+			case FileWatchManager.CHANGE_DATA:
+				if(file != null)
+				{
+					if(change.hasKey("data", Constants.NBT.TAG_COMPOUND))
+					{
+						file.data = change.getCompoundTag("data");
+					}
+					else
+					{
+						refresh();
+					}
+				}
+				break;
+			case FileWatchManager.CHANGE_REFRESH:
+				structureLoaded = false;
+				refresh();
+				break;
+		}
+	}
+
 	/**
 	 * Do not use! Used for checking if folder is synced with file system
 	 *
@@ -589,6 +731,8 @@ public class Folder extends File
 		if(folderTag.hasKey("protected", Constants.NBT.TAG_BYTE))
 			folder.protect = folderTag.getBoolean("protected");
 
+		folder.structureLoaded = !folderTag.getBoolean("partial");
+
 		NBTTagCompound fileList = folderTag.getCompoundTag("files");
 		for(String fileName : fileList.getKeySet())
 		{
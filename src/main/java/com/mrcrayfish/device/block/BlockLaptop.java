@@ -1,11 +1,11 @@
 package com.mrcrayfish.device.block;
 
 import com.mrcrayfish.device.MrCrayfishDeviceMod;
-import com.mrcrayfish.device.core.Laptop;
 import com.mrcrayfish.device.init.DeviceItems;
+import com.mrcrayfish.device.network.PacketHandler;
+import com.mrcrayfish.device.network.task.MessageOpenLaptop;
 import com.mrcrayfish.device.object.Bounds;
 import com.mrcrayfish.device.tileentity.TileEntityLaptop;
-import com.mrcrayfish.device.util.TileEntityUtil;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockColored;
 import net.minecraft.block.ITileEntityProvider;
@@ -16,6 +16,7 @@ import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityItem;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
@@ -134,15 +135,15 @@ public class BlockLaptop extends BlockDevice.Colored
 						{
 							BlockPos summonPos = pos.offset(state.getValue(FACING).rotateYCCW());
 							worldIn.spawnEntity(new EntityItem(worldIn, summonPos.getX() + 0.5, summonPos.getY(), summonPos.getZ() + 0.5, stack));
-							TileEntityUtil.markBlockForUpdate(worldIn, pos);
+							laptop.sync("external_drive_color");
 						}
 					}
 					return true;
 				}
 
-				if(laptop.isOpen() && worldIn.isRemote)
+				if(laptop.isOpen() && !worldIn.isRemote)
 				{
-					playerIn.openGui(MrCrayfishDeviceMod.instance, Laptop.ID, worldIn, pos.getX(), pos.getY(), pos.getZ());
+					PacketHandler.INSTANCE.sendTo(new MessageOpenLaptop(pos, laptop.getSystemData(), laptop.getApplicationData()), (EntityPlayerMP) playerIn);
 				}
 			}
 		}
@@ -1,5 +1,6 @@
 package com.mrcrayfish.device.core;
 
+import com.mrcrayfish.device.core.network.NetworkLookup;
 import com.mrcrayfish.device.tileentity.TileEntityDevice;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
@@ -66,7 +67,7 @@ public class Device
         if(pos == null)
             return null;
 
-        TileEntity tileEntity = world.getTileEntity(pos);
+        TileEntity tileEntity = NetworkLookup.getTileEntity(world, pos);
         if(tileEntity instanceof TileEntityDevice)
         {
             TileEntityDevice tileEntityDevice = (TileEntityDevice) tileEntity;
@@ -10,6 +10,7 @@ import com.mrcrayfish.device.api.app.Layout;
 import com.mrcrayfish.device.api.app.System;
 import com.mrcrayfish.device.api.app.component.Image;
 import com.mrcrayfish.device.api.io.Drive;
+import com.mrcrayfish.device.api.io.FileJob;
 import com.mrcrayfish.device.api.io.File;
 import com.mrcrayfish.device.api.task.Callback;
 import com.mrcrayfish.device.api.task.Task;
@@ -152,6 +153,8 @@ public class Laptop extends GuiScreen implements System
 		Laptop.pos = null;
         Laptop.system = null;
 		Laptop.mainDrive = null;
+		FileJob.clear();
+		FileBrowser.clearWatches();
     }
 
     private void updateSystemData()
@@ -192,7 +195,7 @@ public class Laptop extends GuiScreen implements System
 			}
 		}
 
-		FileBrowser.refreshList = false;
+		FileJob.tick();
 	}
 	
 	@Override
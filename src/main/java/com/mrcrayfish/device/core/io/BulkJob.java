@@ -0,0 +1,101 @@
+package com.mrcrayfish.device.core.io;
+
+import net.minecraft.nbt.NBTTagCompound;
+
+import javax.annotation.Nullable;
+import java.util.UUID;
+
+/**
+ * A file operation that is too large to be completed in a single tick. Jobs are processed by the
+ * {@link BulkJobManager} a few files at a time and must leave the drives untouched until they
+ * are committed, so cancelling a job never leaves a drive in a partial state.
+ *
+ * Author: MrCrayfish
+ */
+public abstract class BulkJob
+{
+    private final UUID id = UUID.randomUUID();
+    protected final FileSystem fileSystem;
+
+    private boolean cancelled = false;
+    private FileSystem.Response result;
+    private UUID owner;
+
+    protected BulkJob(FileSystem fileSystem)
+    {
+        this.fileSystem = fileSystem;
+    }
+
+    public final UUID getId()
+    {
+        return id;
+    }
+
+    /**
+     * Processes the job until the budget runs out. Once all the work is done, the job should
+     * commit it's changes and call {@link #finish(FileSystem.Response)}.
+     *
+     * @param budget the amount of files that can be processed this tick
+     * @return the amount of files that were processed
+     */
+    protected abstract int process(int budget);
+
+    public abstract int getProgress();
+
+    public abstract int getTotal();
+
+    /**
+     * Sets the player who started this job. Only the owner can see the progress of the job or
+     * cancel it.
+     *
+     * @param owner the uuid of the player
+     */
+    public final void setOwner(UUID owner)
+    {
+        this.owner = owner;
+    }
+
+    public final boolean isOwner(UUID player)
+    {
+        return player.equals(owner);
+    }
+
+    public final void cancel()
+    {
+        cancelled = true;
+    }
+
+    public final boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    protected final void finish(FileSystem.Response result)
+    {
+        this.result = result;
+    }
+
+    public final boolean isFinished()
+    {
+        return result != null;
+    }
+
+    @Nullable
+    public final FileSystem.Response getResult()
+    {
+        return result;
+    }
+
+    public NBTTagCompound toTag()
+    {
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setInteger("progress", getProgress());
+        tag.setInteger("total", getTotal());
+        tag.setBoolean("finished", isFinished());
+        if(result != null)
+        {
+            tag.setTag("response", result.toTag());
+        }
+        return tag;
+    }
+}
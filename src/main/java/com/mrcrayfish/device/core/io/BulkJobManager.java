@@ -0,0 +1,103 @@
+package com.mrcrayfish.device.core.io;
+
+import com.mrcrayfish.device.DeviceConfig;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs {@link BulkJob}s on the server thread. Every tick the jobs share a budget of files they
+ * are allowed to process, which keeps a large copy from stalling the server. Finished jobs are
+ * kept around for a short time so clients can poll the result.
+ *
+ * Author: MrCrayfish
+ */
+public class BulkJobManager
+{
+    public static final BulkJobManager INSTANCE = new BulkJobManager();
+
+    private static final int RESULT_LIFETIME = 200;
+
+    private final Map<UUID, BulkJob> jobs = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> finishedJobs = new ConcurrentHashMap<>();
+
+    private BulkJobManager() {}
+
+    public void submit(BulkJob job)
+    {
+        jobs.put(job.getId(), job);
+    }
+
+    @Nullable
+    public BulkJob getJob(UUID id)
+    {
+        return jobs.get(id);
+    }
+
+    /**
+     * Gets a job started by the specified player.
+     *
+     * @param id the id of the job
+     * @param player the player asking for the job
+     * @return the job or null if it doesn't exist or was started by another player
+     */
+    @Nullable
+    public BulkJob getJob(UUID id, EntityPlayer player)
+    {
+        BulkJob job = jobs.get(id);
+        return job != null && job.isOwner(player.getUniqueID()) ? job : null;
+    }
+
+    public boolean cancel(UUID id, EntityPlayer player)
+    {
+        BulkJob job = getJob(id, player);
+        if(job != null && !job.isFinished())
+        {
+            job.cancel();
+            return true;
+        }
+        return false;
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if(event.phase != TickEvent.Phase.END)
+            return;
+
+        int budget = DeviceConfig.getFileJobBudget();
+        for(BulkJob job : jobs.values())
+        {
+            if(job.isFinished())
+                continue;
+
+            /* Every unfinished job gets a turn, even if the budget ran out, so cancelled jobs close */
+            budget -= job.process(Math.max(budget, 0));
+            if(job.isFinished())
+            {
+                finishedJobs.put(job.getId(), RESULT_LIFETIME);
+            }
+        }
+
+        Iterator<Map.Entry<UUID, Integer>> it = finishedJobs.entrySet().iterator();
+        while(it.hasNext())
+        {
+            Map.Entry<UUID, Integer> entry = it.next();
+            if(entry.getValue() <= 0)
+            {
+                jobs.remove(entry.getKey());
+                it.remove();
+            }
+            else
+            {
+                entry.setValue(entry.getValue() - 1);
+            }
+        }
+    }
+}
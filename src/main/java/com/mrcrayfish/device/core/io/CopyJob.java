@@ -0,0 +1,190 @@
+package com.mrcrayfish.device.core.io;
+
+import com.mrcrayfish.device.core.io.drive.AbstractDrive;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Copies or moves a folder in small steps. The copy is built up in a detached folder and is only
+ * added to the destination once every file has been copied. If the folder is being cut, the
+ * source is deleted at the same time, but only if nothing in it changed while it was copied.
+ * Otherwise the files that changed would be lost.
+ *
+ * Author: MrCrayfish
+ */
+public class CopyJob extends BulkJob
+{
+    private final AbstractDrive sourceDrive;
+    private final ServerFolder source;
+    private final AbstractDrive destinationDrive;
+    private final String destinationPath;
+    private final boolean override;
+    private final boolean cut;
+    private final int sourceModifications;
+
+    private final ServerFolder staged;
+    private final Deque<Step> steps = new ArrayDeque<>();
+    private final int total;
+    private int progress;
+
+    public CopyJob(FileSystem fileSystem, AbstractDrive sourceDrive, ServerFolder source, AbstractDrive destinationDrive, String destinationPath, boolean override, boolean cut)
+    {
+        super(fileSystem);
+        this.sourceDrive = sourceDrive;
+        this.source = source;
+        this.destinationDrive = destinationDrive;
+        this.destinationPath = destinationPath;
+        this.override = override;
+        this.cut = cut;
+        this.sourceModifications = source.getModifications();
+        this.staged = new ServerFolder(source.getName());
+        this.steps.push(new Step(source, staged));
+        this.total = countFiles(source, Integer.MAX_VALUE);
+    }
+
+    @Override
+    protected int process(int budget)
+    {
+        if(!fileSystem.isAvailable())
+        {
+            finish(FileSystem.createResponse(FileSystem.Status.DRIVE_UNAVAILABLE, "The laptop is no longer available"));
+            return 0;
+        }
+
+        if(isCancelled())
+        {
+            finish(FileSystem.createResponse(FileSystem.Status.FAILED, "The operation was cancelled"));
+            return 0;
+        }
+
+        int processed = 0;
+        while(processed < budget && !steps.isEmpty())
+        {
+            Step step = steps.peek();
+            List<ServerFile> files = step.files;
+            if(step.index >= files.size())
+            {
+                steps.pop();
+                continue;
+            }
+
+            ServerFile file = files.get(step.index++);
+            if(file.isFolder())
+            {
+                ServerFolder folder = new ServerFolder(file.getName());
+                step.target.add(folder, false);
+                steps.push(new Step((ServerFolder) file, folder));
+            }
+            else
+            {
+                step.target.add(file.copy(), false);
+            }
+            processed++;
+            progress++;
+        }
+
+        if(steps.isEmpty())
+        {
+            finish(commit());
+        }
+        return processed;
+    }
+
+    private FileSystem.Response commit()
+    {
+        if(!fileSystem.isDriveAvailable(destinationDrive) || !fileSystem.isDriveAvailable(sourceDrive))
+            return FileSystem.createResponse(FileSystem.Status.DRIVE_UNAVAILABLE, "Drive was removed before the operation could finish");
+
+        ServerFolder destination = destinationDrive.getFolder(destinationPath);
+        if(destination == null)
+            return FileSystem.createResponse(FileSystem.Status.FILE_INVALID, "Destination folder no longer exists");
+
+        if(cut && source.getModifications() != sourceModifications)
+            return FileSystem.createResponse(FileSystem.Status.FAILED, "The folder was changed while it was being moved");
+
+        String sourceLocation = source.getLocation();
+        ServerFile replaced = destination.getFile(staged.getName());
+        FileSystem.Response response = destination.add(staged, override);
+        if(response.getStatus() != FileSystem.Status.SUCCESSFUL)
+            return response;
+
+        if(cut)
+        {
+            response = source.delete();
+            if(response.getStatus() != FileSystem.Status.SUCCESSFUL)
+            {
+                /* Put back the file that was overridden, otherwise it would be lost */
+                destination.delete(staged);
+                if(replaced != null)
+                {
+                    destination.add(replaced, false);
+                }
+                return response;
+            }
+            sourceDrive.markChanged();
+        }
+        destinationDrive.markChanged();
+        fileSystem.markDirty();
+        FileWatchManager.INSTANCE.publishCopy(sourceDrive.getUUID(), sourceLocation, source.getName(), destinationDrive.getUUID(), destinationPath, cut, null);
+        return FileSystem.createSuccessResponse();
+    }
+
+    @Override
+    public int getProgress()
+    {
+        return progress;
+    }
+
+    @Override
+    public int getTotal()
+    {
+        return total;
+    }
+
+    /**
+     * Counts the amount of files and folders contained in a folder. Counting stops as soon as
+     * the limit is exceeded.
+     *
+     * @param folder the folder to count
+     * @param limit the maximum amount to count up to
+     * @return the amount of files, or a value larger than the limit
+     */
+    public static int countFiles(ServerFolder folder, int limit)
+    {
+        int count = 0;
+        Deque<ServerFolder> folders = new ArrayDeque<>();
+        folders.push(folder);
+        while(!folders.isEmpty() && count <= limit)
+        {
+            for(ServerFile file : folders.pop().getFiles())
+            {
+                count++;
+                if(file.isFolder())
+                {
+                    folders.push((ServerFolder) file);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A folder being copied. The files of the folder are taken when the step is created, so
+     * files added or removed while the job runs don't shift the files left to copy.
+     */
+    private static class Step
+    {
+        private final List<ServerFile> files;
+        private final ServerFolder target;
+        private int index;
+
+        private Step(ServerFolder source, ServerFolder target)
+        {
+            this.files = new ArrayList<>(source.getFiles());
+            this.target = target;
+        }
+    }
+}
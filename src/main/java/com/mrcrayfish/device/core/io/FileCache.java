@@ -0,0 +1,269 @@
+package com.mrcrayfish.device.core.io;
+
+import com.mrcrayfish.device.DeviceConfig;
+import com.mrcrayfish.device.core.io.action.FileAction;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A client side cache of the files contained in folders, keyed by the drive UUID and the path of
+ * the folder. Entries are evicted in least recently used order once the serialized size of the
+ * cache exceeds the budget set in the config. Every entry remembers the version of the drive it
+ * was fetched at and is discarded as soon as the server reports a newer version of that drive.
+ *
+ * Author: MrCrayfish
+ */
+public class FileCache
+{
+    public static final FileCache INSTANCE = new FileCache();
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private final Map<UUID, Integer> driveVersions = new HashMap<>();
+
+    private long residentSize;
+    private int hits;
+    private int misses;
+
+    private FileCache() {}
+
+    /**
+     * Gets a copy of the cached file list for the folder at the specified path. If the folder is
+     * not cached, or the cached copy is older than the latest known version of the drive, this
+     * will return null.
+     *
+     * @param drive the uuid of the drive
+     * @param path the path of the folder
+     * @return a copy of the cached file list or null
+     */
+    @Nullable
+    public synchronized NBTTagList get(UUID drive, String path)
+    {
+        String key = createKey(drive, path);
+        Entry entry = entries.get(key);
+        if(entry != null)
+        {
+            Integer version = driveVersions.get(drive);
+            if(version != null && version == entry.version)
+            {
+                hits++;
+                return entry.files.copy();
+            }
+            remove(key);
+        }
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(UUID drive, String path, NBTTagList files, int version)
+    {
+        updateVersion(drive, version);
+
+        long budget = getBudget();
+        if(budget <= 0)
+            return;
+
+        String key = createKey(drive, path);
+        remove(key);
+
+        int size = sizeOf(files);
+        if(size > budget)
+            return;
+
+        entries.put(key, new Entry(drive, path, files, version, size));
+        residentSize += size;
+
+        Iterator<Entry> it = entries.values().iterator();
+        while(residentSize > budget && it.hasNext())
+        {
+            residentSize -= it.next().size;
+            it.remove();
+        }
+    }
+
+    /**
+     * Gets the latest known version of a drive. Entries returned by
+     * {@link #get(UUID, String)} were fetched at this version.
+     *
+     * @param drive the uuid of the drive
+     * @return the version or null if the version of the drive is unknown
+     */
+    @Nullable
+    public synchronized Integer getVersion(UUID drive)
+    {
+        return driveVersions.get(drive);
+    }
+
+    /**
+     * Updates the latest known version of a drive. Entries fetched at an older version will no
+     * longer be returned from the cache.
+     *
+     * @param drive the uuid of the drive
+     * @param version the version reported by the server
+     */
+    public synchronized void updateVersion(UUID drive, int version)
+    {
+        driveVersions.put(drive, version);
+    }
+
+    /**
+     * Invalidates the folders affected by a successful file action sent by this client. If the
+     * drive did not change on the server in between, the remaining entries of the drive are moved
+     * to the new version as they are known to still be up to date.
+     *
+     * @param drive the uuid of the drive the action was performed on
+     * @param action the action that was performed
+     * @param previousVersion the version of the drive before the action
+     * @param version the version of the drive after the action
+     */
+    public synchronized void onActionPerformed(UUID drive, FileAction action, int previousVersion, int version)
+    {
+        NBTTagCompound data = action.getData();
+        String directory = data.getString("directory");
+        invalidate(drive, directory);
+
+        switch(action.getType())
+        {
+            case DELETE:
+            case RENAME:
+            case COPY_CUT:
+                invalidateTree(drive, join(directory, data.getString("file_name")));
+                break;
+            default:
+                break;
+        }
+
+        if(action.getType() == FileAction.Type.COPY_CUT)
+        {
+            UUID destination = UUID.fromString(data.getString("destination_drive"));
+            invalidateTree(destination, data.getString("destination_folder"));
+        }
+
+        Integer knownVersion = driveVersions.get(drive);
+        if(knownVersion != null && knownVersion == previousVersion)
+        {
+            entries.values().stream().filter(entry -> entry.drive.equals(drive) && entry.version == previousVersion).forEach(entry -> entry.version = version);
+        }
+        updateVersion(drive, version);
+    }
+
+    public synchronized void invalidate(UUID drive, String path)
+    {
+        remove(createKey(drive, path));
+    }
+
+    public synchronized void invalidateTree(UUID drive, String path)
+    {
+        String prefix = normalize(path);
+        Iterator<Entry> it = entries.values().iterator();
+        while(it.hasNext())
+        {
+            Entry entry = it.next();
+            if(entry.drive.equals(drive) && (entry.path.equals(prefix) || prefix.equals(FileSystem.DIR_ROOT) || entry.path.startsWith(prefix + "/")))
+            {
+                residentSize -= entry.size;
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void clear()
+    {
+        entries.clear();
+        driveVersions.clear();
+        residentSize = 0;
+        hits = 0;
+        misses = 0;
+    }
+
+    public synchronized int getEntryCount()
+    {
+        return entries.size();
+    }
+
+    public synchronized long getResidentSize()
+    {
+        return residentSize;
+    }
+
+    public long getBudget()
+    {
+        return DeviceConfig.getFileCacheSize() * 1024L;
+    }
+
+    public synchronized int getHits()
+    {
+        return hits;
+    }
+
+    public synchronized int getMisses()
+    {
+        return misses;
+    }
+
+    public synchronized float getHitRatio()
+    {
+        int total = hits + misses;
+        return total > 0 ? hits / (float) total : 0F;
+    }
+
+    private void remove(String key)
+    {
+        Entry entry = entries.remove(key);
+        if(entry != null)
+        {
+            residentSize -= entry.size;
+        }
+    }
+
+    private static String createKey(UUID drive, String path)
+    {
+        return drive.toString() + ":" + normalize(path);
+    }
+
+    private static String normalize(String path)
+    {
+        return path == null || path.isEmpty() ? FileSystem.DIR_ROOT : path;
+    }
+
+    private static String join(String directory, String name)
+    {
+        directory = normalize(directory);
+        return directory.equals(FileSystem.DIR_ROOT) ? FileSystem.DIR_ROOT + name : directory + "/" + name;
+    }
+
+    /**
+     * Measures the serialized size of the file list. This is used as the cost of an entry instead
+     * of trying to estimate the memory used by the tag tree.
+     */
+    private static int sizeOf(NBTTagList files)
+    {
+        NBTTagCompound wrapper = new NBTTagCompound();
+        wrapper.setTag("files", files);
+        return PackedData.sizeOf(wrapper);
+    }
+
+    private static class Entry
+    {
+        private final UUID drive;
+        private final String path;
+        private final NBTTagList files;
+        private final int size;
+        private int version;
+
+        private Entry(UUID drive, String path, NBTTagList files, int version, int size)
+        {
+            this.drive = drive;
+            this.path = normalize(path);
+            this.files = files;
+            this.version = version;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.mrcrayfish.device.core.io;
+
+import com.mrcrayfish.device.DeviceConfig;
+import com.mrcrayfish.device.core.io.drive.AbstractDrive;
+import com.mrcrayfish.device.tileentity.TileEntityLaptop;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the file streams opened by players. A stream lets a client read or write the
+ * packed data of a file in fixed size chunks instead of moving the whole tag in a single packet.
+ * Reads work on a snapshot of the data taken when the stream is opened. Writes are collected in
+ * a buffer and only applied to the file once the stream is closed, so a write that is abandoned
+ * half way never leaves a file with partial data. The buffer grows as chunks arrive, so opening a
+ * stream costs nothing until data is actually sent.
+ *
+ * Author: MrCrayfish
+ */
+public class FileStreamManager
+{
+    public static final FileStreamManager INSTANCE = new FileStreamManager();
+
+    /**
+     * The maximum amount of bytes moved per task. Packets sent from the client are limited to
+     * 32767 bytes, so this leaves plenty of room for the rest of the request.
+     */
+    public static final int CHUNK_SIZE = 16384;
+
+    private static final int TIMEOUT = 600;
+    private static final int MAX_STREAMS_PER_PLAYER = 8;
+
+    /* How much larger than the compressed data the decoded tag may be, as counted by the size tracker */
+    private static final int MAX_DECODED_RATIO = 16;
+
+    private final Map<UUID, Stream> streams = new ConcurrentHashMap<>();
+
+    private FileStreamManager() {}
+
+    public FileSystem.Response open(World world, EntityPlayer player, BlockPos pos, UUID driveUuid, String directory, String fileName, boolean write, int length)
+    {
+        ServerFile file = findFile(world, pos, driveUuid, directory, fileName);
+        if(file == null)
+            return FileSystem.createResponse(FileSystem.Status.FILE_INVALID, "The file could not be found");
+
+        if(write)
+        {
+            if(file.isProtected())
+                return FileSystem.createResponse(FileSystem.Status.FILE_IS_PROTECTED, "Cannot set data on a protected file");
+
+            if(length <= 0 || length > DeviceConfig.getMaxStreamSize() * 1024)
+                return FileSystem.createResponse(FileSystem.Status.FILE_INVALID_DATA, "The data is too large");
+        }
+
+        UUID owner = player.getUniqueID();
+        if(streams.values().stream().filter(stream -> stream.owner.equals(owner)).count() >= MAX_STREAMS_PER_PLAYER)
+            return FileSystem.createResponse(FileSystem.Status.FAILED, "Too many open streams");
+
+        Stream stream = new Stream(owner, pos, driveUuid, directory, fileName);
+        stream.buffer = write ? new byte[0] : (file.data != null ? file.data : new byte[0]);
+        stream.length = write ? length : stream.buffer.length;
+        stream.write = write;
+        streams.put(stream.id, stream);
+        return FileSystem.createResponse(FileSystem.Status.SUCCESSFUL, stream.id.toString());
+    }
+
+    public int getLength(EntityPlayer player, UUID id)
+    {
+        Stream stream = getStream(player, id);
+        return stream != null ? stream.length : 0;
+    }
+
+    @Nullable
+    public byte[] read(EntityPlayer player, UUID id, int offset, int length)
+    {
+        Stream stream = getStream(player, id);
+        if(stream == null || stream.write)
+            return null;
+
+        if(offset < 0 || offset > stream.buffer.length)
+            return null;
+
+        length = Math.min(Math.min(length, CHUNK_SIZE), stream.buffer.length - offset);
+        byte[] chunk = new byte[Math.max(length, 0)];
+        System.arraycopy(stream.buffer, offset, chunk, 0, chunk.length);
+        stream.idle = 0;
+        return chunk;
+    }
+
+    public boolean write(EntityPlayer player, UUID id, int offset, byte[] bytes)
+    {
+        Stream stream = getStream(player, id);
+        if(stream == null || !stream.write)
+            return false;
+
+        if(bytes.length > CHUNK_SIZE || offset < 0 || offset > stream.length - bytes.length)
+            return false;
+
+        int end = offset + bytes.length;
+        if(end > stream.buffer.length)
+        {
+            stream.buffer = Arrays.copyOf(stream.buffer, Math.min(Math.max(end, stream.buffer.length * 2), stream.length));
+        }
+        System.arraycopy(bytes, 0, stream.buffer, offset, bytes.length);
+        stream.idle = 0;
+        return true;
+    }
+
+    public FileSystem.Response close(World world, EntityPlayer player, UUID id, boolean commit)
+    {
+        Stream stream = getStream(player, id);
+        if(stream == null)
+            return FileSystem.createResponse(FileSystem.Status.FAILED, "The stream is not open");
+
+        streams.remove(id);
+
+        if(!stream.write || !commit)
+            return FileSystem.createSuccessResponse();
+
+        TileEntity tileEntity = world.getTileEntity(stream.pos);
+        if(!(tileEntity instanceof TileEntityLaptop))
+            return FileSystem.createResponse(FileSystem.Status.DRIVE_UNAVAILABLE, "The laptop is no longer available");
+
+        FileSystem fileSystem = ((TileEntityLaptop) tileEntity).getFileSystem();
+        AbstractDrive drive = fileSystem.getAvailableDrives(world, true).get(stream.drive);
+        if(drive == null)
+            return FileSystem.createResponse(FileSystem.Status.DRIVE_UNAVAILABLE, "Drive was removed before the data could be saved");
+
+        ServerFile file = findFile(drive, stream.directory, stream.fileName);
+        if(file == null)
+            return FileSystem.createResponse(FileSystem.Status.FILE_INVALID, "The file could not be found");
+
+        if(file.isProtected())
+            return FileSystem.createResponse(FileSystem.Status.FILE_IS_PROTECTED, "Cannot set data on a protected file");
+
+        byte[] data = stream.buffer.length == stream.length ? stream.buffer : Arrays.copyOf(stream.buffer, stream.length);
+        if(!PackedData.verify(data, (long) DeviceConfig.getMaxStreamSize() * 1024 * MAX_DECODED_RATIO))
+            return FileSystem.createResponse(FileSystem.Status.FILE_INVALID_DATA, "Invalid data");
+
+        file.replaceData(data);
+        drive.markChanged();
+        fileSystem.markDirty();
+        FileWatchManager.INSTANCE.publishDataChanged(stream.drive, stream.directory, stream.fileName, player);
+        return FileSystem.createSuccessResponse();
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if(event.phase != TickEvent.Phase.END)
+            return;
+
+        streams.values().removeIf(stream -> ++stream.idle > TIMEOUT);
+    }
+
+    @Nullable
+    private Stream getStream(EntityPlayer player, UUID id)
+    {
+        Stream stream = streams.get(id);
+        if(stream != null && stream.owner.equals(player.getUniqueID()))
+        {
+            return stream;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static ServerFile findFile(World world, BlockPos pos, UUID driveUuid, String directory, String fileName)
+    {
+        TileEntity tileEntity = world.getTileEntity(pos);
+        if(tileEntity instanceof TileEntityLaptop)
+        {
+            AbstractDrive drive = ((TileEntityLaptop) tileEntity).getFileSystem().getAvailableDrives(world, true).get(driveUuid);
+            if(drive != null)
+            {
+                return findFile(drive, directory, fileName);
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static ServerFile findFile(AbstractDrive drive, String directory, String fileName)
+    {
+        ServerFolder folder = drive.getFolder(directory);
+        if(folder != null)
+        {
+            ServerFile file = folder.getFile(fileName);
+            if(file != null && !file.isFolder())
+            {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private static class Stream
+    {
+        private final UUID id = UUID.randomUUID();
+        private final UUID owner;
+        private final BlockPos pos;
+        private final UUID drive;
+        private final String directory;
+        private final String fileName;
+
+        private byte[] buffer;
+        private int length;
+        private boolean write;
+        private int idle;
+
+        private Stream(UUID owner, BlockPos pos, UUID drive, String directory, String fileName)
+        {
+            this.owner = owner;
+            this.pos = pos;
+            this.drive = drive;
+            this.directory = directory;
+            this.fileName = fileName;
+        }
+    }
+}
@@ -12,11 +12,11 @@ import com.mrcrayfish.device.core.io.action.FileAction;
 import com.mrcrayfish.device.core.io.drive.AbstractDrive;
 import com.mrcrayfish.device.core.io.drive.ExternalDrive;
 import com.mrcrayfish.device.core.io.drive.InternalDrive;
-import com.mrcrayfish.device.core.io.task.TaskGetFiles;
 import com.mrcrayfish.device.core.io.task.TaskGetMainDrive;
 import com.mrcrayfish.device.core.io.task.TaskSendAction;
 import com.mrcrayfish.device.init.DeviceItems;
 import com.mrcrayfish.device.tileentity.TileEntityLaptop;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.EnumDyeColor;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -51,6 +51,10 @@ public class FileSystem
 	private EnumDyeColor attachedDriveColor = EnumDyeColor.RED;
 
 	private TileEntityLaptop tileEntity;
+
+	private long lastSaveTime;
+	private long totalSaveTime;
+	private int saveCount;
 	
 	public FileSystem(TileEntityLaptop tileEntity, NBTTagCompound fileSystemTag)
 	{
@@ -129,9 +133,14 @@ public class FileSystem
 			Task task = new TaskSendAction(drive, action);
 			task.setCallback((nbt, success) ->
 			{
+				Response response = Response.fromTag(nbt.getCompoundTag("response"));
+				if(success && response.getStatus() == Status.SUCCESSFUL)
+				{
+					FileCache.INSTANCE.onActionPerformed(drive.getUUID(), action, nbt.getInteger("previous_version"), nbt.getInteger("version"));
+				}
 				if(callback != null)
 				{
-					callback.execute(Response.fromTag(nbt.getCompoundTag("response")), success);
+					callback.execute(response, success);
 				}
             });
 			TaskManager.sendTask(task);
@@ -139,15 +148,38 @@ public class FileSystem
 	}
 
 	public Response readAction(String driveUuid, FileAction action, World world)
+	{
+		return readAction(driveUuid, action, world, null);
+	}
+
+	public Response readAction(String driveUuid, FileAction action, World world, @Nullable EntityPlayer player)
 	{
 		UUID uuid = UUID.fromString(driveUuid);
 		AbstractDrive drive = getAvailableDrives(world, true).get(uuid);
 		if(drive != null)
 		{
 			Response response = drive.handleFileAction(this, action, world);
+			if(response.getStatus() == Status.JOB_QUEUED && player != null)
+			{
+				BulkJob job = BulkJobManager.INSTANCE.getJob(UUID.fromString(response.getMessage()));
+				if(job != null)
+				{
+					job.setOwner(player.getUniqueID());
+				}
+			}
 			if(response.getStatus() == Status.SUCCESSFUL)
 			{
+				drive.markChanged();
+				if(action.getType() == FileAction.Type.COPY_CUT)
+				{
+					AbstractDrive destination = getAvailableDrives(world, true).get(UUID.fromString(action.getData().getString("destination_drive")));
+					if(destination != null && destination != drive)
+					{
+						destination.markChanged();
+					}
+				}
 				tileEntity.markDirty();
+				FileWatchManager.INSTANCE.publishAction(uuid, action, player);
 			}
 			return response;
 		}
@@ -159,6 +191,26 @@ public class FileSystem
 		return mainDrive;
 	}
 
+	/**
+	 * Checks if the laptop holding this file system is still loaded in the world
+	 *
+	 * @return if the file system can still be used
+	 */
+	public boolean isAvailable()
+	{
+		return !tileEntity.isInvalid() && tileEntity.getWorld() != null;
+	}
+
+	public boolean isDriveAvailable(AbstractDrive drive)
+	{
+		return isAvailable() && getAvailableDrives(tileEntity.getWorld(), true).get(drive.getUUID()) == drive;
+	}
+
+	public void markDirty()
+	{
+		tileEntity.markDirty();
+	}
+
 	public Map<UUID, AbstractDrive> getAvailableDrives(World world, boolean includeMain)
 	{
 		Map<UUID, AbstractDrive> drives = new LinkedHashMap<>();
@@ -187,8 +239,7 @@ public class FileSystem
 				attachedDrive = drive;
 				attachedDriveColor = EnumDyeColor.byMetadata(flashDrive.getMetadata());
 
-				tileEntity.getPipeline().setByte("external_drive_color", (byte) attachedDriveColor.getMetadata());
-				tileEntity.sync();
+				tileEntity.sync("external_drive_color");
 
 				return true;
 			}
@@ -276,28 +327,7 @@ public class FileSystem
 			if(folder.hasFolder(app.getInfo().getFormattedId()))
 			{
 				Folder appFolder = folder.getFolder(app.getInfo().getFormattedId());
-				if(appFolder.isSynced())
-				{
-					callback.execute(appFolder, true);
-				}
-				else
-				{
-					Task task = new TaskGetFiles(appFolder, Laptop.getPos());
-					task.setCallback((nbt, success) ->
-					{
-						if(success && nbt.hasKey("files", Constants.NBT.TAG_LIST))
-						{
-							NBTTagList files = nbt.getTagList("files", Constants.NBT.TAG_COMPOUND);
-							appFolder.syncFiles(files);
-							callback.execute(appFolder, true);
-						}
-						else
-						{
-							callback.execute(null, false);
-						}
-					});
-					TaskManager.sendTask(task);
-				}
+				appFolder.sync((syncedFolder, success) -> callback.execute(success ? syncedFolder : null, success));
 			}
 			else
 			{
@@ -323,6 +353,7 @@ public class FileSystem
 
 	public NBTTagCompound toTag()
 	{
+		long start = System.nanoTime();
 		NBTTagCompound fileSystemTag = new NBTTagCompound();
 
 		if(mainDrive != null)
@@ -338,9 +369,35 @@ public class FileSystem
 			fileSystemTag.setByte("external_drive_color", (byte) attachedDriveColor.getMetadata());
 		}
 
+		lastSaveTime = System.nanoTime() - start;
+		totalSaveTime += lastSaveTime;
+		saveCount++;
+
 		return fileSystemTag;
 	}
 
+	/**
+	 * Gets how long the last call to {@link #toTag()} took. Only the folders that changed since the
+	 * previous save are written again, so this grows with the amount of changes rather than the
+	 * size of the drives.
+	 *
+	 * @return the time in nanoseconds
+	 */
+	public long getLastSaveTime()
+	{
+		return lastSaveTime;
+	}
+
+	public long getAverageSaveTime()
+	{
+		return saveCount > 0 ? totalSaveTime / saveCount : 0;
+	}
+
+	public int getSaveCount()
+	{
+		return saveCount;
+	}
+
 	public static Response createSuccessResponse()
 	{
 		return new Response(Status.SUCCESSFUL);
@@ -401,5 +458,6 @@ public class FileSystem
 		public static final int FILE_INVALID_NAME = 5;
 		public static final int FILE_INVALID_DATA = 6;
 		public static final int DRIVE_UNAVAILABLE = 7;
+		public static final int JOB_QUEUED = 8;
 	}
 }
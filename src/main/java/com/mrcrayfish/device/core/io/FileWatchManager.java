@@ -0,0 +1,201 @@
+package com.mrcrayfish.device.core.io;
+
+import com.mrcrayfish.device.core.io.action.FileAction;
+import com.mrcrayfish.device.network.PacketHandler;
+import com.mrcrayfish.device.network.task.MessageFileChanged;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the folders players are currently looking at and sends them the changes made to
+ * those folders by other players. The player who performed a change is never notified, as the
+ * client already applies its own changes once the action succeeds.
+ *
+ * Author: MrCrayfish
+ */
+public class FileWatchManager
+{
+    public static final FileWatchManager INSTANCE = new FileWatchManager();
+
+    public static final String CHANGE_NEW = "new";
+    public static final String CHANGE_DELETE = "delete";
+    public static final String CHANGE_RENAME = "rename";
+    public static final String CHANGE_DATA = "data";
+    public static final String CHANGE_REFRESH = "refresh";
+
+    private final Map<UUID, Set<String>> watches = new ConcurrentHashMap<>();
+
+    private FileWatchManager() {}
+
+    /**
+     * Starts sending the changes made to a folder to a player. The caller is responsible for
+     * checking that the player has access to the drive.
+     *
+     * @param player the player
+     * @param drive the uuid of the drive the folder is on
+     * @param path the path of the folder
+     */
+    public void watch(EntityPlayer player, UUID drive, String path)
+    {
+        watches.computeIfAbsent(player.getUniqueID(), uuid -> ConcurrentHashMap.newKeySet()).add(createKey(drive, path));
+    }
+
+    public void unwatch(EntityPlayer player, UUID drive, String path)
+    {
+        Set<String> keys = watches.get(player.getUniqueID());
+        if(keys != null)
+        {
+            keys.remove(createKey(drive, path));
+        }
+    }
+
+    public void unwatchAll(EntityPlayer player)
+    {
+        watches.remove(player.getUniqueID());
+    }
+
+    /**
+     * Publishes the changes caused by a successful file action to the players watching the
+     * affected folders.
+     *
+     * @param drive the uuid of the drive the action was performed on
+     * @param action the action
+     * @param source the player who performed the action
+     */
+    public void publishAction(UUID drive, FileAction action, @Nullable EntityPlayer source)
+    {
+        if(watches.isEmpty())
+            return;
+
+        NBTTagCompound data = action.getData();
+        String directory = data.getString("directory");
+        String fileName = data.getString("file_name");
+        switch(action.getType())
+        {
+            case NEW:
+            {
+                NBTTagCompound change = createChange(CHANGE_NEW, fileName);
+                change.setTag("file", data.getCompoundTag("data"));
+                publish(drive, directory, change, source);
+                break;
+            }
+            case DELETE:
+                publish(drive, directory, createChange(CHANGE_DELETE, fileName), source);
+                break;
+            case RENAME:
+            {
+                NBTTagCompound change = createChange(CHANGE_RENAME, fileName);
+                change.setString("new_file_name", data.getString("new_file_name"));
+                publish(drive, directory, change, source);
+                break;
+            }
+            case DATA:
+            {
+                NBTTagCompound change = createChange(CHANGE_DATA, fileName);
+                change.setTag("data", data.getCompoundTag("data"));
+                publish(drive, directory, change, source);
+                break;
+            }
+            case RESTORE:
+                publish(drive, directory, createChange(CHANGE_DATA, fileName), source);
+                break;
+            case COPY_CUT:
+                publishCopy(drive, directory, fileName, UUID.fromString(data.getString("destination_drive")), data.getString("destination_folder"), data.getBoolean("cut"), source);
+                break;
+        }
+    }
+
+    /**
+     * Publishes a copy or move. The copied file can be a whole folder tree, so instead of sending
+     * it, watchers of the destination are told to reload the folder.
+     */
+    public void publishCopy(UUID sourceDrive, String directory, String fileName, UUID destinationDrive, String destinationFolder, boolean cut, @Nullable EntityPlayer source)
+    {
+        if(watches.isEmpty())
+            return;
+
+        publish(destinationDrive, destinationFolder, createChange(CHANGE_REFRESH, ""), source);
+        if(cut)
+        {
+            publish(sourceDrive, directory, createChange(CHANGE_DELETE, fileName), source);
+        }
+    }
+
+    /**
+     * Publishes that the data of a file has changed without including the data itself. Watchers
+     * will reload the folder the next time they open it.
+     */
+    public void publishDataChanged(UUID drive, String directory, String fileName, @Nullable EntityPlayer source)
+    {
+        if(watches.isEmpty())
+            return;
+
+        publish(drive, directory, createChange(CHANGE_DATA, fileName), source);
+    }
+
+    public void publish(UUID drive, String directory, NBTTagCompound change, @Nullable EntityPlayer source)
+    {
+        MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+        if(server == null)
+            return;
+
+        String key = createKey(drive, directory);
+        change.setString("drive", drive.toString());
+        change.setString("directory", normalize(directory));
+
+        MessageFileChanged message = null;
+        for(Map.Entry<UUID, Set<String>> entry : watches.entrySet())
+        {
+            if(source != null && entry.getKey().equals(source.getUniqueID()))
+                continue;
+
+            if(!entry.getValue().contains(key))
+                continue;
+
+            EntityPlayerMP player = server.getPlayerList().getPlayerByUUID(entry.getKey());
+            if(player != null)
+            {
+                if(message == null)
+                {
+                    message = new MessageFileChanged(change);
+                }
+                PacketHandler.INSTANCE.sendTo(message, player);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event)
+    {
+        unwatchAll(event.player);
+    }
+
+    private static NBTTagCompound createChange(String type, String fileName)
+    {
+        NBTTagCompound change = new NBTTagCompound();
+        change.setString("type", type);
+        change.setString("file_name", fileName);
+        return change;
+    }
+
+    private static String createKey(UUID drive, String path)
+    {
+        return drive.toString() + ":" + normalize(path);
+    }
+
+    private static String normalize(String path)
+    {
+        return path == null || path.isEmpty() ? FileSystem.DIR_ROOT : path;
+    }
+}
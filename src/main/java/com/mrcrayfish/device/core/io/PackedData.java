@@ -0,0 +1,207 @@
+package com.mrcrayfish.device.core.io;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.mrcrayfish.device.MrCrayfishDeviceMod;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTSizeTracker;
+import net.minecraft.nbt.NBTTagCompound;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Stores the data of server files as compressed byte arrays instead of live tag trees. A tag
+ * compound is made of many small objects, which adds up quickly when hundreds of laptops are
+ * loaded. The packed bytes are never modified once created, so copies of a file can share them.
+ *
+ * Recently decoded tags are kept in a small cache so reading the same file repeatedly does not
+ * decompress it every time. The cache is bounded by the size of the decoded tags as counted by
+ * {@link #sizeOf(NBTTagCompound)}, so a few large files can't hold on to a lot of memory.
+ *
+ * Author: MrCrayfish
+ */
+public class PackedData
+{
+    public static final long CACHE_BUDGET = 4 * 1024 * 1024;
+
+    /* Arrays don't override equals/hashCode, so entries are keyed by identity of the packed bytes */
+    private static final Map<byte[], Entry> CACHE = new LinkedHashMap<>(16, 0.75F, true);
+    private static long cachedSize;
+
+    private PackedData() {}
+
+    public static byte[] pack(NBTTagCompound tag)
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try
+        {
+            CompressedStreamTools.writeCompressed(tag, output);
+        }
+        catch(IOException e)
+        {
+            MrCrayfishDeviceMod.getLogger().error("Unable to pack file data", e);
+            return new byte[0];
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Decodes packed data into a new tag compound. The returned tag is a copy and can be freely
+     * modified without affecting the packed data.
+     *
+     * @param packed the packed data
+     * @return the decoded tag
+     */
+    public static NBTTagCompound unpack(byte[] packed)
+    {
+        synchronized(CACHE)
+        {
+            Entry entry = CACHE.get(packed);
+            if(entry != null)
+            {
+                return entry.tag.copy();
+            }
+        }
+
+        NBTTagCompound tag = decode(packed);
+        int size = sizeOf(tag);
+        if(size <= CACHE_BUDGET)
+        {
+            synchronized(CACHE)
+            {
+                Entry previous = CACHE.put(packed, new Entry(tag, size));
+                cachedSize += size - (previous != null ? previous.size : 0);
+
+                Iterator<Entry> it = CACHE.values().iterator();
+                while(cachedSize > CACHE_BUDGET && it.hasNext())
+                {
+                    cachedSize -= it.next().size;
+                    it.remove();
+                }
+            }
+        }
+        return tag.copy();
+    }
+
+    /**
+     * Decodes packed data without adding it to the cache. Used when serializing whole drives so a
+     * save does not push out the files that are actually being used.
+     *
+     * @param packed the packed data
+     * @return the decoded tag
+     */
+    public static NBTTagCompound unpackUncached(byte[] packed)
+    {
+        synchronized(CACHE)
+        {
+            Entry entry = CACHE.get(packed);
+            if(entry != null)
+            {
+                return entry.tag.copy();
+            }
+        }
+        return decode(packed);
+    }
+
+    /**
+     * Gets the total size of the tags in the decode cache, as counted by
+     * {@link #sizeOf(NBTTagCompound)}.
+     *
+     * @return the size in bytes
+     */
+    public static long getCachedSize()
+    {
+        synchronized(CACHE)
+        {
+            return cachedSize;
+        }
+    }
+
+    public static void clearCache()
+    {
+        synchronized(CACHE)
+        {
+            CACHE.clear();
+            cachedSize = 0;
+        }
+    }
+
+    /**
+     * Gets the size of a tag as it is written to a packet, without compression.
+     *
+     * @param tag the tag
+     * @return the size in bytes
+     */
+    public static int sizeOf(NBTTagCompound tag)
+    {
+        CountingOutputStream output = new CountingOutputStream(ByteStreams.nullOutputStream());
+        try
+        {
+            CompressedStreamTools.write(tag, new DataOutputStream(output));
+        }
+        catch(IOException e)
+        {
+            MrCrayfishDeviceMod.getLogger().error("Unable to measure the size of a tag", e);
+        }
+        return (int) output.getCount();
+    }
+
+    /**
+     * Checks if the bytes are valid packed data. Used to validate data received from clients
+     * before it is stored in a file. The decoded size is limited, as a few kilobytes of
+     * compressed data can decode into a tag that doesn't fit in memory.
+     *
+     * @param packed the packed data
+     * @param maxSize the maximum size in bytes of the decoded tag, as counted by {@link NBTSizeTracker}
+     * @return true if the data can be decoded within the limit
+     */
+    public static boolean verify(byte[] packed, long maxSize)
+    {
+        try(DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new ByteArrayInputStream(packed)))))
+        {
+            CompressedStreamTools.read(input, new NBTSizeTracker(maxSize));
+            return true;
+        }
+        catch(IOException | RuntimeException e)
+        {
+            return false;
+        }
+    }
+
+    private static NBTTagCompound decode(byte[] packed)
+    {
+        if(packed.length == 0)
+            return new NBTTagCompound();
+
+        try
+        {
+            return CompressedStreamTools.readCompressed(new ByteArrayInputStream(packed));
+        }
+        catch(IOException e)
+        {
+            MrCrayfishDeviceMod.getLogger().error("Unable to unpack file data", e);
+            return new NBTTagCompound();
+        }
+    }
+
+    private static class Entry
+    {
+        private final NBTTagCompound tag;
+        private final int size;
+
+        private Entry(NBTTagCompound tag, int size)
+        {
+            this.tag = tag;
+            this.size = size;
+        }
+    }
+}
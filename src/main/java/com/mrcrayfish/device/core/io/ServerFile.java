@@ -1,10 +1,17 @@
 package com.mrcrayfish.device.core.io;
 
+import com.mrcrayfish.device.DeviceConfig;
 import com.mrcrayfish.device.api.app.Application;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraftforge.common.util.Constants;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Author: MrCrayfish
@@ -20,9 +27,18 @@ public class ServerFile
     protected ServerFolder parent;
     protected String name;
     protected String openingApp;
-    protected NBTTagCompound data;
+    /* Compressed with PackedData. Never modified in place, so copies may share the same array */
+    protected byte[] data;
     protected boolean protect = false;
 
+    /* Previous data of this file, most recent first. Only created once the data is replaced */
+    private LinkedList<Revision> history;
+
+    /* The last storage tag of this file, reused when saving until this file or its contents change.
+     * The tag holds the packed data as is, so caching it does not keep a decoded copy around. */
+    private NBTTagCompound cachedTag;
+    private int modifications;
+
     protected ServerFile() {}
 
     public ServerFile(String name, Application app, NBTTagCompound data)
@@ -39,10 +55,17 @@ public class ServerFile
     {
         this.name = name;
         this.openingApp = openingAppId;
-        this.data = data;
+        this.data = data != null ? PackedData.pack(data) : null;
         this.protect = protect;
     }
 
+    private ServerFile(String name, String openingAppId, byte[] data)
+    {
+        this.name = name;
+        this.openingApp = openingAppId;
+        this.data = data;
+    }
+
     public String getName()
     {
         return name;
@@ -57,6 +80,7 @@ public class ServerFile
             return FileSystem.createResponse(FileSystem.Status.FILE_INVALID_NAME, "Invalid file name");
 
         this.name = name;
+        markModified();
         return FileSystem.createSuccessResponse();
     }
 
@@ -74,14 +98,150 @@ public class ServerFile
         if(data == null)
             return FileSystem.createResponse(FileSystem.Status.FILE_INVALID_DATA, "Invalid data");
 
-        this.data = data;
+        replaceData(PackedData.pack(data));
         return FileSystem.createSuccessResponse();
     }
 
+    /**
+     * Replaces the packed data of this file and keeps the previous data as a revision. The old
+     * array is never modified, so keeping it only costs the memory it already used.
+     *
+     * @param packed the new packed data
+     */
+    void replaceData(byte[] packed)
+    {
+        if(this.data != null && !Arrays.equals(this.data, packed))
+        {
+            addRevision(new Revision(this.data, System.currentTimeMillis()));
+        }
+        this.data = packed;
+        markModified();
+    }
+
+    /**
+     * Discards the cached storage tag of this file and of every folder above it, as the tags of
+     * the folders contain the tag of this file.
+     */
+    protected void markModified()
+    {
+        ServerFile current = this;
+        while(current != null)
+        {
+            current.cachedTag = null;
+            current.modifications++;
+            current = current.parent;
+        }
+    }
+
+    /**
+     * Gets the amount of times this file or anything in it has changed. Used to check a file has
+     * not changed while a job was working on it.
+     *
+     * @return the modification count
+     */
+    int getModifications()
+    {
+        return modifications;
+    }
+
+    private void addRevision(Revision revision)
+    {
+        int depth = DeviceConfig.getFileHistoryDepth();
+        if(depth <= 0)
+        {
+            history = null;
+            return;
+        }
+
+        if(history == null)
+        {
+            history = new LinkedList<>();
+        }
+        history.addFirst(revision);
+        while(history.size() > depth)
+        {
+            history.removeLast();
+        }
+    }
+
+    /**
+     * Gets the previous revisions of the data of this file, most recent first.
+     *
+     * @return the revisions
+     */
+    public List<Revision> getHistory()
+    {
+        return history != null ? Collections.unmodifiableList(history) : Collections.emptyList();
+    }
+
+    /**
+     * Restores the data of this file to a previous revision. The current data is kept as a new
+     * revision, so a restore can be undone.
+     *
+     * @param index the index of the revision, 0 being the most recent
+     * @return the response
+     */
+    public FileSystem.Response restore(int index)
+    {
+        if(this.protect)
+            return FileSystem.createResponse(FileSystem.Status.FILE_IS_PROTECTED, "Cannot restore a protected file");
+
+        if(isFolder())
+            return FileSystem.createResponse(FileSystem.Status.FILE_INVALID, "Folders do not have a history");
+
+        if(history == null || index < 0 || index >= history.size())
+            return FileSystem.createResponse(FileSystem.Status.FILE_INVALID, "The revision does not exist");
+
+        replaceData(history.get(index).data);
+        return FileSystem.createSuccessResponse();
+    }
+
+    /**
+     * Takes over the data and history of a file this file is replacing, so overriding a file by
+     * accident can be undone.
+     *
+     * @param previous the file being replaced
+     */
+    void inheritHistory(ServerFile previous)
+    {
+        if(previous.history != null)
+        {
+            history = new LinkedList<>(previous.history);
+        }
+        if(previous.data != null && !Arrays.equals(previous.data, data))
+        {
+            addRevision(new Revision(previous.data, System.currentTimeMillis()));
+        }
+        markModified();
+    }
+
+    /**
+     * Gets a copy of the data of this file. Changes made to the returned tag are not reflected in
+     * the file and must be applied using {@link #setData(NBTTagCompound)}.
+     *
+     * @return a copy of the data
+     */
     @Nullable
     public NBTTagCompound getData()
     {
-        return data;
+        return data != null ? PackedData.unpack(data) : null;
+    }
+
+    /**
+     * Gets the path of the folder this file is contained in.
+     *
+     * @return the location of the file
+     */
+    public String getLocation()
+    {
+        StringBuilder builder = new StringBuilder();
+        ServerFolder current = parent;
+        while(current != null && current.getParent() != null)
+        {
+            builder.insert(0, "/" + current.getName());
+            current = current.getParent();
+        }
+        return builder.length() > 0 ? builder.toString() : FileSystem.DIR_ROOT;
     }
 
     @Nullable
@@ -116,17 +276,120 @@ public class ServerFile
         return FileSystem.createResponse(FileSystem.Status.FILE_INVALID, "Invalid file");
     }
 
-    public NBTTagCompound toTag()
+    /**
+     * Gets the storage tag of this file. The tag is cached and reused until this file changes, so
+     * saving a drive only rebuilds the tags of folders that contain changes. The returned tag is
+     * shared and must not be modified.
+     *
+     * @return the storage tag
+     */
+    public final NBTTagCompound toTag()
+    {
+        NBTTagCompound tag = cachedTag;
+        if(tag == null)
+        {
+            int modifications = this.modifications;
+            tag = createTag();
+            if(modifications == this.modifications)
+            {
+                cachedTag = tag;
+            }
+        }
+        return tag;
+    }
+
+    /**
+     * Creates the storage tag of this file. The data is stored packed, so saving does not decode
+     * it and the cached tag shares the packed array with this file.
+     *
+     * @return the storage tag
+     */
+    protected NBTTagCompound createTag()
+    {
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setString("openingApp", openingApp);
+        tag.setByteArray("data", data != null ? data : new byte[0]);
+        writeHistory(tag);
+        return tag;
+    }
+
+    /**
+     * Converts this file into a tag compound with the data decoded, as sent to clients.
+     *
+     * @param includeHistory if the previous revisions should be included
+     * @return the file tag
+     */
+    public NBTTagCompound toTag(boolean includeHistory)
     {
         NBTTagCompound tag = new NBTTagCompound();
         tag.setString("openingApp", openingApp);
-        tag.setTag("data", data);
+        tag.setTag("data", data != null ? PackedData.unpackUncached(data) : new NBTTagCompound());
+        if(includeHistory)
+        {
+            writeHistory(tag);
+        }
         return tag;
     }
 
+    private void writeHistory(NBTTagCompound tag)
+    {
+        if(history != null && !history.isEmpty())
+        {
+            NBTTagList historyList = new NBTTagList();
+            history.forEach(revision ->
+            {
+                NBTTagCompound revisionTag = new NBTTagCompound();
+                revisionTag.setByteArray("data", revision.data);
+                revisionTag.setLong("time", revision.time);
+                historyList.appendTag(revisionTag);
+            });
+            tag.setTag("history", historyList);
+        }
+    }
+
+    /**
+     * Loads a file from its storage tag. Files saved before the data was stored packed have the
+     * data as a tag compound, which is packed when loaded.
+     */
     public static ServerFile fromTag(String name, NBTTagCompound tag)
     {
-        return new ServerFile(name, tag.getString("openingApp"), tag.getCompoundTag("data"));
+        return fromTag(name, tag, true);
+    }
+
+    /**
+     * Creates a file from a tag sent by a client. Packed data and history are ignored, as they
+     * have not been verified.
+     */
+    public static ServerFile fromClientTag(String name, NBTTagCompound tag)
+    {
+        return fromTag(name, tag, false);
+    }
+
+    private static ServerFile fromTag(String name, NBTTagCompound tag, boolean trusted)
+    {
+        ServerFile file;
+        if(trusted && tag.hasKey("data", Constants.NBT.TAG_BYTE_ARRAY))
+        {
+            file = new ServerFile(name, tag.getString("openingApp"), tag.getByteArray("data"));
+        }
+        else
+        {
+            file = new ServerFile(name, tag.getString("openingApp"), tag.getCompoundTag("data"));
+        }
+        if(trusted && tag.hasKey("history", Constants.NBT.TAG_LIST))
+        {
+            NBTTagList historyList = tag.getTagList("history", Constants.NBT.TAG_COMPOUND);
+            if(historyList.tagCount() > 0)
+            {
+                file.history = new LinkedList<>();
+                for(int i = 0; i < historyList.tagCount(); i++)
+                {
+                    NBTTagCompound revisionTag = historyList.getCompoundTagAt(i);
+                    file.history.add(new Revision(revisionTag.getByteArray("data"), revisionTag.getLong("time")));
+                }
+            }
+        }
+        return file;
     }
 
     @Override
@@ -141,6 +404,37 @@ public class ServerFile
 
     public ServerFile copy()
     {
-        return new ServerFile(name, openingApp, data.copy());
+        ServerFile file = new ServerFile(name, openingApp, data);
+        if(history != null)
+        {
+            file.history = new LinkedList<>(history);
+        }
+        return file;
+    }
+
+    /**
+     * A previous version of the data of a file. Revisions share the packed data array the file
+     * used at the time, so creating one does not copy anything.
+     */
+    public static class Revision
+    {
+        private final byte[] data;
+        private final long time;
+
+        private Revision(byte[] data, long time)
+        {
+            this.data = data;
+            this.time = time;
+        }
+
+        public long getTime()
+        {
+            return time;
+        }
+
+        public int getSize()
+        {
+            return data.length;
+        }
     }
 }
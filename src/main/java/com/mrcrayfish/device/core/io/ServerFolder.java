@@ -41,13 +41,17 @@ public class ServerFolder extends ServerFile
         {
             if(!override)
                 return FileSystem.createResponse(Status.FILE_EXISTS, "A file with that name already exists");
-            if(getFile(file.name).isProtected())
+            ServerFile existing = getFile(file.name);
+            if(existing.isProtected())
                 return FileSystem.createResponse(Status.FILE_IS_PROTECTED, "Unable to override protected files");
-            files.remove(getFile(file.name));
+            if(!existing.isFolder() && !file.isFolder())
+                file.inheritHistory(existing);
+            files.remove(existing);
         }
 
         files.add(file);
         file.parent = this;
+        markModified();
         return FileSystem.createSuccessResponse();
     }
 
@@ -69,6 +73,7 @@ public class ServerFolder extends ServerFile
 
         file.parent = null;
         files.remove(file);
+        markModified();
         return FileSystem.createSuccessResponse();
     }
 
@@ -127,6 +132,7 @@ public class ServerFolder extends ServerFile
     public void setFiles(List<ServerFile> files)
     {
         this.files = files;
+        markModified();
     }
 
     @Override
@@ -136,7 +142,7 @@ public class ServerFolder extends ServerFile
     }
 
     @Override
-    public NBTTagCompound toTag()
+    protected NBTTagCompound createTag()
     {
         NBTTagCompound folderTag = new NBTTagCompound();
 
@@ -150,6 +156,19 @@ public class ServerFolder extends ServerFile
     }
 
     public static ServerFolder fromTag(String name, NBTTagCompound folderTag)
+    {
+        return fromTag(name, folderTag, true);
+    }
+
+    /**
+     * Creates a folder from a tag sent by a client. See {@link ServerFile#fromClientTag(String, NBTTagCompound)}.
+     */
+    public static ServerFolder fromClientTag(String name, NBTTagCompound folderTag)
+    {
+        return fromTag(name, folderTag, false);
+    }
+
+    private static ServerFolder fromTag(String name, NBTTagCompound folderTag, boolean trusted)
     {
         ServerFolder folder = new ServerFolder(name);
 
@@ -162,11 +181,11 @@ public class ServerFolder extends ServerFile
             NBTTagCompound fileTag = fileList.getCompoundTag(fileName);
             if(fileTag.hasKey("files"))
             {
-                folder.add(ServerFolder.fromTag(fileName, fileTag), false);
+                folder.add(ServerFolder.fromTag(fileName, fileTag, trusted), false);
             }
             else
             {
-                folder.add(ServerFile.fromTag(fileName, fileTag), false);
+                folder.add(trusted ? ServerFile.fromTag(fileName, fileTag) : ServerFile.fromClientTag(fileName, fileTag), false);
             }
         }
         return folder;
@@ -191,17 +210,32 @@ public class ServerFolder extends ServerFile
         return folder;
     }
 
-    public ServerFolder copyStructure()
+    /**
+     * Writes the folder structure of this folder straight into a tag without copying the tree.
+     * Folders at the depth limit that contain sub folders are marked as partial, so the client
+     * knows it has to request the rest of the structure when the folder is opened.
+     *
+     * @param depth the amount of levels to include, or -1 to include the whole tree
+     * @return the structure tag
+     */
+    public NBTTagCompound writeStructure(int depth)
     {
-        ServerFolder folder = new ServerFolder(name, protect);
-        files.forEach(f ->
+        NBTTagCompound folderTag = new NBTTagCompound();
+
+        NBTTagCompound fileList = new NBTTagCompound();
+        if(depth != 0)
         {
-            if(f.isFolder())
-            {
-                folder.add(((ServerFolder)f).copyStructure(), false);
-            }
-        });
-        return folder;
+            files.stream().filter(ServerFile::isFolder).forEach(file -> fileList.setTag(file.getName(), ((ServerFolder) file).writeStructure(depth > 0 ? depth - 1 : depth)));
+        }
+        else if(files.stream().anyMatch(ServerFile::isFolder))
+        {
+            folderTag.setBoolean("partial", true);
+        }
+        folderTag.setTag("files", fileList);
+
+        if(protect) folderTag.setBoolean("protected", true);
+
+        return folderTag;
     }
 
     /*public void print(int startingDepth)
@@ -45,7 +45,7 @@ public class FileAction
 
     public enum Type
     {
-        NEW, DELETE, RENAME, DATA, COPY_CUT
+        NEW, DELETE, RENAME, DATA, COPY_CUT, RESTORE
     }
 
     public static class Factory
@@ -86,6 +86,15 @@ public class FileAction
             return new FileAction(Type.DATA, vars);
         }
 
+        public static FileAction makeRestore(File file, int revision)
+        {
+            NBTTagCompound vars = new NBTTagCompound();
+            vars.setString("directory", file.getLocation());
+            vars.setString("file_name", file.getName());
+            vars.setInteger("revision", revision);
+            return new FileAction(Type.RESTORE, vars);
+        }
+
         public static FileAction makeCopyCut(File source, Folder destination, boolean override, boolean cut)
         {
             NBTTagCompound vars = new NBTTagCompound();
@@ -1,5 +1,9 @@
 package com.mrcrayfish.device.core.io.drive;
 
+import com.mrcrayfish.device.DeviceConfig;
+import com.mrcrayfish.device.core.io.BulkJob;
+import com.mrcrayfish.device.core.io.BulkJobManager;
+import com.mrcrayfish.device.core.io.CopyJob;
 import com.mrcrayfish.device.core.io.FileSystem;
 import com.mrcrayfish.device.core.io.ServerFile;
 import com.mrcrayfish.device.core.io.ServerFolder;
@@ -11,17 +15,24 @@ import net.minecraftforge.common.util.Constants;
 import javax.annotation.Nullable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Author: MrCrayfish
  */
 public abstract class AbstractDrive
 {
+    /* Seeded randomly so versions from a previous run of the server are not handed out again */
+    private static final AtomicInteger VERSION_COUNTER = new AtomicInteger(new Random().nextInt());
+
     protected String name;
     protected UUID uuid;
     protected ServerFolder root;
 
+    private int version = VERSION_COUNTER.incrementAndGet();
+
     AbstractDrive() {}
 
     AbstractDrive(String name)
@@ -51,6 +62,24 @@ public abstract class AbstractDrive
         return root;
     }
 
+    /**
+     * Gets the version of this drive. The version changes every time the contents of the drive
+     * are modified and is unique for the lifetime of the server, so a drive that is reloaded from
+     * disk will never report a version a client has seen before. The first version is random, so
+     * the versions of a restarted server are very unlikely to match the ones a client has seen.
+     *
+     * @return the current version of the drive
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+
+    public void markChanged()
+    {
+        version = VERSION_COUNTER.incrementAndGet();
+    }
+
     public FileSystem.Response handleFileAction(FileSystem fileSystem, FileAction action, World world)
     {
         NBTTagCompound actionData = action.getData();
@@ -63,9 +92,9 @@ public abstract class AbstractDrive
                 case NEW:
                     if(data.hasKey("files", Constants.NBT.TAG_COMPOUND))
                     {
-                        return folder.add(ServerFolder.fromTag(actionData.getString("file_name"), data), actionData.getBoolean("override"));
+                        return folder.add(ServerFolder.fromClientTag(actionData.getString("file_name"), data), actionData.getBoolean("override"));
                     }
-                    return folder.add(ServerFile.fromTag(actionData.getString("file_name"), data), data.getBoolean("override"));
+                    return folder.add(ServerFile.fromClientTag(actionData.getString("file_name"), data), data.getBoolean("override"));
                 case DELETE:
                     return folder.delete(actionData.getString("file_name"));
                 case RENAME:
@@ -82,6 +111,13 @@ public abstract class AbstractDrive
                         return file.setData(actionData.getCompoundTag("data"));
                     }
                     return FileSystem.createResponse(FileSystem.Status.FILE_INVALID, "File not found on server. Please refresh!");
+                case RESTORE:
+                    file = folder.getFile(actionData.getString("file_name"));
+                    if(file != null)
+                    {
+                        return file.restore(actionData.getInteger("revision"));
+                    }
+                    return FileSystem.createResponse(FileSystem.Status.FILE_INVALID, "File not found on server. Please refresh!");
                 case COPY_CUT:
                     file = folder.getFile(actionData.getString("file_name"));
                     if(file != null)
@@ -103,14 +139,43 @@ public abstract class AbstractDrive
                                     temp = temp.getParent();
                                 }
 
-                                FileSystem.Response response = destination.add(file.copy(), actionData.getBoolean("override"));
+                                if(file.isFolder() && CopyJob.countFiles((ServerFolder) file, DeviceConfig.getFileJobBudget()) > DeviceConfig.getFileJobBudget())
+                                {
+                                    ServerFile existing = destination.getFile(file.getName());
+                                    if(existing != null)
+                                    {
+                                        if(!actionData.getBoolean("override"))
+                                            return FileSystem.createResponse(FileSystem.Status.FILE_EXISTS, "A file with that name already exists");
+                                        if(existing.isProtected())
+                                            return FileSystem.createResponse(FileSystem.Status.FILE_IS_PROTECTED, "Unable to override protected files");
+                                    }
+                                    if(actionData.getBoolean("cut") && file.isProtected())
+                                        return FileSystem.createResponse(FileSystem.Status.FILE_IS_PROTECTED, "Cannot delete a protected file");
+
+                                    BulkJob job = new CopyJob(fileSystem, this, (ServerFolder) file, drive, actionData.getString("destination_folder"), actionData.getBoolean("override"), actionData.getBoolean("cut"));
+                                    BulkJobManager.INSTANCE.submit(job);
+                                    return FileSystem.createResponse(FileSystem.Status.JOB_QUEUED, job.getId().toString());
+                                }
+
+                                ServerFile copy = file.copy();
+                                ServerFile replaced = destination.getFile(file.getName());
+                                FileSystem.Response response = destination.add(copy, actionData.getBoolean("override"));
                                 if(response.getStatus() != FileSystem.Status.SUCCESSFUL)
                                 {
                                     return response;
                                 }
                                 if(actionData.getBoolean("cut"))
                                 {
-                                    return file.delete();
+                                    response = file.delete();
+                                    if(response.getStatus() != FileSystem.Status.SUCCESSFUL)
+                                    {
+                                        destination.delete(copy);
+                                        if(replaced != null)
+                                        {
+                                            destination.add(replaced, false);
+                                        }
+                                    }
+                                    return response;
                                 }
                                 return FileSystem.createSuccessResponse();
                             }
@@ -162,9 +227,23 @@ public abstract class AbstractDrive
         return null;
     }
 
-    public ServerFolder getDriveStructure()
+    /**
+     * Writes the folder structure of the folder at the specified path.
+     *
+     * @param path the directory of the folder
+     * @param depth the amount of levels to include, or -1 to include the whole tree
+     * @return the structure tag or null if the folder does not exist
+     */
+    @Nullable
+    public NBTTagCompound getStructure(String path, int depth)
+    {
+        ServerFolder folder = getFolder(path);
+        return folder != null ? folder.writeStructure(depth) : null;
+    }
+
+    public NBTTagCompound getDriveStructure()
     {
-        return root.copyStructure();
+        return root.writeStructure(-1);
     }
 
     private static ServerFolder createProtectedFolder(String name)
@@ -3,6 +3,7 @@ package com.mrcrayfish.device.core.io.drive;
 import com.mrcrayfish.device.core.io.FileSystem;
 import com.mrcrayfish.device.core.io.ServerFolder;
 import com.mrcrayfish.device.core.io.action.FileAction;
+import com.mrcrayfish.device.core.network.NetworkLookup;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
@@ -28,7 +29,7 @@ public final class NetworkDrive extends AbstractDrive
     @Override
     public ServerFolder getRoot(World world)
     {
-        TileEntity tileEntity = world.getTileEntity(pos);
+        TileEntity tileEntity = NetworkLookup.getTileEntity(world, pos);
         if(tileEntity instanceof Interface)
         {
             Interface impl = (Interface) tileEntity;
@@ -44,7 +45,7 @@ public final class NetworkDrive extends AbstractDrive
     @Override
     public FileSystem.Response handleFileAction(FileSystem fileSystem, FileAction action, World world)
     {
-        TileEntity tileEntity = world.getTileEntity(pos);
+        TileEntity tileEntity = NetworkLookup.getTileEntity(world, pos);
         if(tileEntity instanceof Interface)
         {
             Interface impl = (Interface) tileEntity;
@@ -0,0 +1,55 @@
+package com.mrcrayfish.device.core.io.task;
+
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.io.BulkJobManager;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+
+import java.util.UUID;
+
+/**
+ * Author: MrCrayfish
+ */
+public class TaskCancelJob extends Task
+{
+    private UUID jobId;
+
+    private TaskCancelJob()
+    {
+        super("cancel_job");
+    }
+
+    public TaskCancelJob(UUID jobId)
+    {
+        this();
+        this.jobId = jobId;
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        nbt.setUniqueId("job_id", jobId);
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        if(BulkJobManager.INSTANCE.cancel(nbt.getUniqueId("job_id"), player))
+        {
+            this.setSuccessful();
+        }
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+}
@@ -0,0 +1,59 @@
+package com.mrcrayfish.device.core.io.task;
+
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.io.FileStreamManager;
+import com.mrcrayfish.device.core.io.FileSystem;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+
+import java.util.UUID;
+
+/**
+ * Author: MrCrayfish
+ */
+public class TaskCloseStream extends Task
+{
+    private UUID streamId;
+    private boolean commit;
+
+    private FileSystem.Response response;
+
+    private TaskCloseStream()
+    {
+        super("close_stream");
+    }
+
+    public TaskCloseStream(UUID streamId, boolean commit)
+    {
+        this();
+        this.streamId = streamId;
+        this.commit = commit;
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        nbt.setUniqueId("stream_id", streamId);
+        nbt.setBoolean("commit", commit);
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        response = FileStreamManager.INSTANCE.close(world, player, nbt.getUniqueId("stream_id"), nbt.getBoolean("commit"));
+        this.setSuccessful();
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+        nbt.setTag("response", response.toTag());
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+}
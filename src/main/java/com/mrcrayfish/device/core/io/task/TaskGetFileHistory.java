@@ -0,0 +1,99 @@
+package com.mrcrayfish.device.core.io.task;
+
+import com.mrcrayfish.device.api.io.File;
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.Laptop;
+import com.mrcrayfish.device.core.io.ServerFile;
+import com.mrcrayfish.device.core.io.ServerFolder;
+import com.mrcrayfish.device.core.io.drive.AbstractDrive;
+import com.mrcrayfish.device.tileentity.TileEntityLaptop;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.UUID;
+
+/**
+ * Author: MrCrayfish
+ */
+public class TaskGetFileHistory extends Task
+{
+    private String uuid;
+    private String directory;
+    private String fileName;
+    private BlockPos pos;
+
+    private NBTTagList history;
+
+    private TaskGetFileHistory()
+    {
+        super("get_file_history");
+    }
+
+    public TaskGetFileHistory(File file)
+    {
+        this();
+        this.uuid = file.getDrive().getUUID().toString();
+        this.directory = file.getLocation();
+        this.fileName = file.getName();
+        this.pos = Laptop.getPos();
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        nbt.setString("uuid", uuid);
+        nbt.setString("directory", directory);
+        nbt.setString("file_name", fileName);
+        nbt.setLong("pos", pos.toLong());
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        TileEntity tileEntity = world.getTileEntity(BlockPos.fromLong(nbt.getLong("pos")));
+        if(tileEntity instanceof TileEntityLaptop)
+        {
+            TileEntityLaptop laptop = (TileEntityLaptop) tileEntity;
+            AbstractDrive drive = laptop.getFileSystem().getAvailableDrives(world, true).get(UUID.fromString(nbt.getString("uuid")));
+            if(drive != null)
+            {
+                ServerFolder folder = drive.getFolder(nbt.getString("directory"));
+                if(folder != null)
+                {
+                    ServerFile file = folder.getFile(nbt.getString("file_name"));
+                    if(file != null && !file.isFolder())
+                    {
+                        history = new NBTTagList();
+                        file.getHistory().forEach(revision ->
+                        {
+                            NBTTagCompound revisionTag = new NBTTagCompound();
+                            revisionTag.setLong("time", revision.getTime());
+                            revisionTag.setInteger("size", revision.getSize());
+                            history.appendTag(revisionTag);
+                        });
+                        this.setSuccessful();
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+        if(this.isSucessful())
+        {
+            nbt.setTag("history", history);
+        }
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+}
@@ -13,12 +13,17 @@ import net.minecraft.nbt.NBTTagList;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.minecraftforge.common.util.Constants;
 
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
+ * Gets the files of a folder. If the client has the files cached, it sends the version of the
+ * drive they were fetched at. The files are then only sent back if the drive changed since.
+ *
  * Author: MrCrayfish
  */
 public class TaskGetFiles extends Task
@@ -26,8 +31,11 @@ public class TaskGetFiles extends Task
     private String uuid;
     private String path;
     private BlockPos pos;
+    private Integer cachedVersion;
 
     private List<ServerFile> files;
+    private int version;
+    private boolean unchanged;
 
     private TaskGetFiles()
     {
@@ -35,11 +43,23 @@ public class TaskGetFiles extends Task
     }
 
     public TaskGetFiles(Folder folder, BlockPos pos)
+    {
+        this(folder, pos, null);
+    }
+
+    /**
+     * @param folder the folder to get the files of
+     * @param pos the position of the laptop
+     * @param cachedVersion the version of the drive the cached files were fetched at, or null if
+     *                      the files are not cached
+     */
+    public TaskGetFiles(Folder folder, BlockPos pos, @Nullable Integer cachedVersion)
     {
         this();
         this.uuid = folder.getDrive().getUUID().toString();
         this.path = folder.getPath();
         this.pos = pos;
+        this.cachedVersion = cachedVersion;
     }
 
     @Override
@@ -48,11 +68,18 @@ public class TaskGetFiles extends Task
         nbt.setString("uuid", uuid);
         nbt.setString("path", path);
         nbt.setLong("pos", pos.toLong());
+        if(cachedVersion != null)
+        {
+            nbt.setInteger("cached_version", cachedVersion);
+        }
     }
 
     @Override
     public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
     {
+        this.files = null;
+        this.unchanged = false;
+
         TileEntity tileEntity = world.getTileEntity(BlockPos.fromLong(nbt.getLong("pos")));
         if(tileEntity instanceof TileEntityLaptop)
         {
@@ -65,6 +92,13 @@ public class TaskGetFiles extends Task
                 ServerFolder found = serverDrive.getFolder(nbt.getString("path"));
                 if(found != null)
                 {
+                    this.version = serverDrive.getVersion();
+                    if(nbt.hasKey("cached_version", Constants.NBT.TAG_INT) && nbt.getInteger("cached_version") == version)
+                    {
+                        this.unchanged = true;
+                        this.setSuccessful();
+                        return;
+                    }
                     this.files = found.getFiles().stream().filter(f -> !f.isFolder()).collect(Collectors.toList());
                     this.setSuccessful();
                 }
@@ -75,16 +109,22 @@ public class TaskGetFiles extends Task
     @Override
     public void prepareResponse(NBTTagCompound nbt)
     {
-        if(this.files != null)
+        if(this.unchanged)
+        {
+            nbt.setBoolean("unchanged", true);
+            nbt.setInteger("version", version);
+        }
+        else if(this.files != null)
         {
             NBTTagList list = new NBTTagList();
             this.files.forEach(f -> {
                 NBTTagCompound fileTag = new NBTTagCompound();
                 fileTag.setString("file_name", f.getName());
-                fileTag.setTag("data", f.toTag());
+                fileTag.setTag("data", f.toTag(false));
                 list.appendTag(fileTag);
             });
             nbt.setTag("files", list);
+            nbt.setInteger("version", version);
         }
     }
 
@@ -0,0 +1,63 @@
+package com.mrcrayfish.device.core.io.task;
+
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.io.BulkJob;
+import com.mrcrayfish.device.core.io.BulkJobManager;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+
+import java.util.UUID;
+
+/**
+ * Author: MrCrayfish
+ */
+public class TaskGetJobProgress extends Task
+{
+    private UUID jobId;
+
+    private NBTTagCompound jobTag;
+
+    private TaskGetJobProgress()
+    {
+        super("get_job_progress");
+    }
+
+    public TaskGetJobProgress(UUID jobId)
+    {
+        this();
+        this.jobId = jobId;
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        nbt.setUniqueId("job_id", jobId);
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        BulkJob job = BulkJobManager.INSTANCE.getJob(nbt.getUniqueId("job_id"), player);
+        if(job != null)
+        {
+            jobTag = job.toTag();
+            this.setSuccessful();
+        }
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+        if(this.isSucessful())
+        {
+            nbt.setTag("job", jobTag);
+        }
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+}
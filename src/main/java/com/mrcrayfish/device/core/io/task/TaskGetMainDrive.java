@@ -62,8 +62,9 @@ public class TaskGetMainDrive extends Task
             mainDriveTag.setString("name", mainDrive.getName());
             mainDriveTag.setString("uuid", mainDrive.getUUID().toString());
             mainDriveTag.setString("type", mainDrive.getType().toString());
+            mainDriveTag.setInteger("version", mainDrive.getVersion());
             nbt.setTag("main_drive", mainDriveTag);
-            nbt.setTag("structure", mainDrive.getDriveStructure().toTag());
+            nbt.setTag("structure", mainDrive.getDriveStructure());
         }
     }
 
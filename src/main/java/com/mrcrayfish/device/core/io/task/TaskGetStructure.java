@@ -3,7 +3,6 @@ package com.mrcrayfish.device.core.io.task;
 import com.mrcrayfish.device.api.io.Drive;
 import com.mrcrayfish.device.api.task.Task;
 import com.mrcrayfish.device.core.io.FileSystem;
-import com.mrcrayfish.device.core.io.ServerFolder;
 import com.mrcrayfish.device.core.io.drive.AbstractDrive;
 import com.mrcrayfish.device.tileentity.TileEntityLaptop;
 import net.minecraft.entity.player.EntityPlayer;
@@ -20,9 +19,11 @@ import java.util.UUID;
 public class TaskGetStructure extends Task
 {
     private String uuid;
+    private String path;
+    private int depth;
     private BlockPos pos;
 
-    private ServerFolder folder;
+    private NBTTagCompound structure;
 
     private TaskGetStructure()
     {
@@ -30,9 +31,25 @@ public class TaskGetStructure extends Task
     }
 
     public TaskGetStructure(Drive drive, BlockPos pos)
+    {
+        this(drive, FileSystem.DIR_ROOT, -1, pos);
+    }
+
+    /**
+     * Gets the folder structure of the folder at the specified path, limited to the specified
+     * amount of levels.
+     *
+     * @param drive the drive the folder is on
+     * @param path the path of the folder
+     * @param depth the amount of levels to include, or -1 to include the whole tree
+     * @param pos the position of the laptop
+     */
+    public TaskGetStructure(Drive drive, String path, int depth, BlockPos pos)
     {
         this();
         this.uuid = drive.getUUID().toString();
+        this.path = path;
+        this.depth = depth;
         this.pos = pos;
     }
 
@@ -40,6 +57,8 @@ public class TaskGetStructure extends Task
     public void prepareRequest(NBTTagCompound nbt)
     {
         nbt.setString("uuid", uuid);
+        nbt.setString("path", path);
+        nbt.setInteger("depth", depth);
         nbt.setLong("pos", pos.toLong());
     }
 
@@ -55,8 +74,11 @@ public class TaskGetStructure extends Task
             AbstractDrive serverDrive = fileSystem.getAvailableDrives(world, true).get(uuid);
             if(serverDrive != null)
             {
-                folder = serverDrive.getDriveStructure();
-                this.setSuccessful();
+                structure = serverDrive.getStructure(nbt.getString("path"), nbt.getInteger("depth"));
+                if(structure != null)
+                {
+                    this.setSuccessful();
+                }
             }
         }
     }
@@ -64,10 +86,9 @@ public class TaskGetStructure extends Task
     @Override
     public void prepareResponse(NBTTagCompound nbt)
     {
-        if(folder != null)
+        if(structure != null)
         {
-            nbt.setString("file_name", folder.getName());
-            nbt.setTag("structure", folder.toTag());
+            nbt.setTag("structure", structure);
         }
     }
 
@@ -0,0 +1,82 @@
+package com.mrcrayfish.device.core.io.task;
+
+import com.mrcrayfish.device.api.io.File;
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.Laptop;
+import com.mrcrayfish.device.core.io.FileStreamManager;
+import com.mrcrayfish.device.core.io.FileSystem;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.UUID;
+
+/**
+ * Author: MrCrayfish
+ */
+public class TaskOpenStream extends Task
+{
+    private String uuid;
+    private String directory;
+    private String fileName;
+    private boolean write;
+    private int length;
+    private BlockPos pos;
+
+    private FileSystem.Response response;
+    private int dataLength;
+
+    private TaskOpenStream()
+    {
+        super("open_stream");
+    }
+
+    public TaskOpenStream(File file, boolean write, int length)
+    {
+        this();
+        this.uuid = file.getDrive().getUUID().toString();
+        this.directory = file.getLocation();
+        this.fileName = file.getName();
+        this.write = write;
+        this.length = length;
+        this.pos = Laptop.getPos();
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        nbt.setString("uuid", uuid);
+        nbt.setString("directory", directory);
+        nbt.setString("file_name", fileName);
+        nbt.setBoolean("write", write);
+        nbt.setInteger("length", length);
+        nbt.setLong("pos", pos.toLong());
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        UUID driveUuid = UUID.fromString(nbt.getString("uuid"));
+        BlockPos pos = BlockPos.fromLong(nbt.getLong("pos"));
+        response = FileStreamManager.INSTANCE.open(world, player, pos, driveUuid, nbt.getString("directory"), nbt.getString("file_name"), nbt.getBoolean("write"), nbt.getInteger("length"));
+        if(response.getStatus() == FileSystem.Status.SUCCESSFUL)
+        {
+            dataLength = FileStreamManager.INSTANCE.getLength(player, UUID.fromString(response.getMessage()));
+            this.setSuccessful();
+        }
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+        nbt.setTag("response", response.toTag());
+        nbt.setInteger("length", dataLength);
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+}
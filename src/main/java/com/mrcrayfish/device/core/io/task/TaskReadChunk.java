@@ -0,0 +1,67 @@
+package com.mrcrayfish.device.core.io.task;
+
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.io.FileStreamManager;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+
+import java.util.UUID;
+
+/**
+ * Author: MrCrayfish
+ */
+public class TaskReadChunk extends Task
+{
+    private UUID streamId;
+    private int offset;
+    private int length;
+
+    private byte[] bytes;
+
+    private TaskReadChunk()
+    {
+        super("read_chunk");
+    }
+
+    public TaskReadChunk(UUID streamId, int offset, int length)
+    {
+        this();
+        this.streamId = streamId;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        nbt.setUniqueId("stream_id", streamId);
+        nbt.setInteger("offset", offset);
+        nbt.setInteger("length", length);
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        bytes = FileStreamManager.INSTANCE.read(player, nbt.getUniqueId("stream_id"), nbt.getInteger("offset"), nbt.getInteger("length"));
+        if(bytes != null)
+        {
+            this.setSuccessful();
+        }
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+        if(this.isSucessful())
+        {
+            nbt.setByteArray("bytes", bytes);
+        }
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+}
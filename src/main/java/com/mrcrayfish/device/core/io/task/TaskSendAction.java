@@ -5,6 +5,7 @@ import com.mrcrayfish.device.api.task.Task;
 import com.mrcrayfish.device.core.Laptop;
 import com.mrcrayfish.device.core.io.FileSystem;
 import com.mrcrayfish.device.core.io.action.FileAction;
+import com.mrcrayfish.device.core.io.drive.AbstractDrive;
 import com.mrcrayfish.device.tileentity.TileEntityLaptop;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
@@ -12,6 +13,8 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
+import java.util.UUID;
+
 /**
  * Author: MrCrayfish
  */
@@ -22,6 +25,8 @@ public class TaskSendAction extends Task
     private BlockPos pos;
 
     private FileSystem.Response response;
+    private int previousVersion;
+    private int version;
 
     private TaskSendAction()
     {
@@ -52,7 +57,10 @@ public class TaskSendAction extends Task
         if(tileEntity instanceof TileEntityLaptop)
         {
             TileEntityLaptop laptop = (TileEntityLaptop) tileEntity;
-            response = laptop.getFileSystem().readAction(nbt.getString("uuid"), action, world);
+            AbstractDrive drive = laptop.getFileSystem().getAvailableDrives(world, true).get(UUID.fromString(nbt.getString("uuid")));
+            previousVersion = drive != null ? drive.getVersion() : 0;
+            response = laptop.getFileSystem().readAction(nbt.getString("uuid"), action, world, player);
+            version = drive != null ? drive.getVersion() : 0;
             this.setSuccessful();
         }
     }
@@ -61,6 +69,8 @@ public class TaskSendAction extends Task
     public void prepareResponse(NBTTagCompound nbt)
     {
         nbt.setTag("response", response.toTag());
+        nbt.setInteger("previous_version", previousVersion);
+        nbt.setInteger("version", version);
     }
 
     @Override
@@ -72,8 +72,9 @@ public class TaskSetupFileBrowser extends Task
                 mainDriveTag.setString("name", mainDrive.getName());
                 mainDriveTag.setString("uuid", mainDrive.getUUID().toString());
                 mainDriveTag.setString("type", mainDrive.getType().toString());
+                mainDriveTag.setInteger("version", mainDrive.getVersion());
                 nbt.setTag("main_drive", mainDriveTag);
-                nbt.setTag("structure", mainDrive.getDriveStructure().toTag());
+                nbt.setTag("structure", mainDrive.getDriveStructure());
             }
 
             NBTTagList driveList = new NBTTagList();
@@ -82,6 +83,7 @@ public class TaskSetupFileBrowser extends Task
                 driveTag.setString("name", v.getName());
                 driveTag.setString("uuid", v.getUUID().toString());
                 driveTag.setString("type", v.getType().toString());
+                driveTag.setInteger("version", v.getVersion());
                 driveList.appendTag(driveTag);
             });
             nbt.setTag("available_drives", driveList);
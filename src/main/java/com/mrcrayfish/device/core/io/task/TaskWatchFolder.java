@@ -0,0 +1,119 @@
+package com.mrcrayfish.device.core.io.task;
+
+import com.mrcrayfish.device.api.io.Drive;
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.io.FileWatchManager;
+import com.mrcrayfish.device.core.io.drive.AbstractDrive;
+import com.mrcrayfish.device.tileentity.TileEntityLaptop;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.UUID;
+
+/**
+ * Author: MrCrayfish
+ */
+public class TaskWatchFolder extends Task
+{
+    private String uuid;
+    private String path;
+    private boolean watch;
+    private BlockPos pos;
+
+    private TaskWatchFolder()
+    {
+        super("watch_folder");
+    }
+
+    /**
+     * Starts or stops receiving the changes made by other players to a folder. The folder can
+     * only be watched if its drive is available to the laptop and the player is using it.
+     *
+     * @param drive the drive the folder is on
+     * @param path the path of the folder
+     * @param watch true to start watching, false to stop
+     * @param pos the position of the laptop
+     */
+    public TaskWatchFolder(Drive drive, String path, boolean watch, BlockPos pos)
+    {
+        this();
+        this.uuid = drive.getUUID().toString();
+        this.path = path;
+        this.watch = watch;
+        this.pos = pos;
+    }
+
+    /**
+     * Creates a task that stops watching every folder
+     */
+    public static TaskWatchFolder unwatchAll()
+    {
+        return new TaskWatchFolder();
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        if(uuid != null)
+        {
+            nbt.setString("uuid", uuid);
+            nbt.setString("path", path);
+            nbt.setBoolean("watch", watch);
+            if(pos != null)
+            {
+                nbt.setLong("pos", pos.toLong());
+            }
+        }
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        if(!nbt.hasKey("uuid"))
+        {
+            FileWatchManager.INSTANCE.unwatchAll(player);
+        }
+        else if(nbt.getBoolean("watch"))
+        {
+            UUID uuid = UUID.fromString(nbt.getString("uuid"));
+            String path = nbt.getString("path");
+            if(!nbt.hasKey("pos") || !canWatch(world, player, BlockPos.fromLong(nbt.getLong("pos")), uuid, path))
+                return;
+            FileWatchManager.INSTANCE.watch(player, uuid, path);
+        }
+        else
+        {
+            FileWatchManager.INSTANCE.unwatch(player, UUID.fromString(nbt.getString("uuid")), nbt.getString("path"));
+        }
+        this.setSuccessful();
+    }
+
+    private static boolean canWatch(World world, EntityPlayer player, BlockPos pos, UUID uuid, String path)
+    {
+        if(player.getDistanceSqToCenter(pos) > 64.0)
+            return false;
+
+        TileEntity tileEntity = world.getTileEntity(pos);
+        if(tileEntity instanceof TileEntityLaptop)
+        {
+            AbstractDrive drive = ((TileEntityLaptop) tileEntity).getFileSystem().getAvailableDrives(world, true).get(uuid);
+            return drive != null && drive.getFolder(path) != null;
+        }
+        return false;
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+}
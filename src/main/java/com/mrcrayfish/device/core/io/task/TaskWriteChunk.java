@@ -0,0 +1,61 @@
+package com.mrcrayfish.device.core.io.task;
+
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.io.FileStreamManager;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+
+import java.util.UUID;
+
+/**
+ * Author: MrCrayfish
+ */
+public class TaskWriteChunk extends Task
+{
+    private UUID streamId;
+    private int offset;
+    private byte[] bytes;
+
+    private TaskWriteChunk()
+    {
+        super("write_chunk");
+    }
+
+    public TaskWriteChunk(UUID streamId, int offset, byte[] bytes)
+    {
+        this();
+        this.streamId = streamId;
+        this.offset = offset;
+        this.bytes = bytes;
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        nbt.setUniqueId("stream_id", streamId);
+        nbt.setInteger("offset", offset);
+        nbt.setByteArray("bytes", bytes);
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        if(FileStreamManager.INSTANCE.write(player, nbt.getUniqueId("stream_id"), nbt.getInteger("offset"), nbt.getByteArray("bytes")))
+        {
+            this.setSuccessful();
+        }
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+}
@@ -1,9 +1,7 @@
 package com.mrcrayfish.device.core.network;
 
 import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
-import com.mrcrayfish.device.tileentity.TileEntityRouter;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
@@ -48,16 +46,7 @@ public class Connection
         if(routerPos == null)
             return null;
 
-        TileEntity tileEntity = world.getTileEntity(routerPos);
-        if(tileEntity instanceof TileEntityRouter)
-        {
-            TileEntityRouter router = (TileEntityRouter) tileEntity;
-            if(router.getRouter().getId().equals(routerId))
-            {
-                return router.getRouter();
-            }
-        }
-        return null;
+        return RouterRegistry.get(world).getRouter(routerId);
     }
 
     public boolean isConnected()
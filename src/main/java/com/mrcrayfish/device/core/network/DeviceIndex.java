@@ -0,0 +1,152 @@
+package com.mrcrayfish.device.core.network;
+
+import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
+import com.mrcrayfish.device.tileentity.TileEntityRouter;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * An index of the loaded network devices and routers in a world, bucketed by the chunk section
+ * (16x16x16 blocks) they are in. Tile entities add themselves when they are loaded and remove
+ * themselves when they are unloaded or broken, so finding the devices around a router only has
+ * to look at the few sections that overlap its signal range instead of every block in it.
+ *
+ * Author: MrCrayfish
+ */
+public class DeviceIndex
+{
+    private static final Map<World, DeviceIndex> INDEXES = new WeakHashMap<>();
+
+    private final Sections<TileEntityNetworkDevice> devices = new Sections<>();
+    private final Sections<TileEntityRouter> routers = new Sections<>();
+
+    public static synchronized DeviceIndex get(World world)
+    {
+        return INDEXES.computeIfAbsent(world, w -> new DeviceIndex());
+    }
+
+    public synchronized void add(TileEntityNetworkDevice device)
+    {
+        devices.add(device);
+    }
+
+    public synchronized void remove(TileEntityNetworkDevice device)
+    {
+        devices.remove(device);
+    }
+
+    public synchronized void addRouter(TileEntityRouter router)
+    {
+        routers.add(router);
+    }
+
+    public synchronized void removeRouter(TileEntityRouter router)
+    {
+        routers.remove(router);
+    }
+
+    /**
+     * Gets the devices within the cube of the specified range around a position. This is the same
+     * area the routers used to scan block by block.
+     *
+     * @param center the center of the cube
+     * @param range the distance from the center to the sides of the cube
+     * @return the devices in range
+     */
+    public synchronized List<TileEntityNetworkDevice> getDevicesInRange(BlockPos center, int range)
+    {
+        return devices.getInRange(center, range);
+    }
+
+    public synchronized List<TileEntityRouter> getRoutersInRange(BlockPos center, int range)
+    {
+        return routers.getInRange(center, range);
+    }
+
+    public synchronized int size()
+    {
+        return devices.size;
+    }
+
+    private static long getSectionKey(BlockPos pos)
+    {
+        return getSectionKey(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+    }
+
+    private static long getSectionKey(int sectionX, int sectionY, int sectionZ)
+    {
+        return new BlockPos(sectionX, sectionY, sectionZ).toLong();
+    }
+
+    private static class Sections<T extends TileEntity>
+    {
+        private final Map<Long, Set<T>> sections = new HashMap<>();
+        private int size;
+
+        private void add(T tileEntity)
+        {
+            if(sections.computeIfAbsent(getSectionKey(tileEntity.getPos()), key -> new HashSet<>()).add(tileEntity))
+            {
+                size++;
+            }
+        }
+
+        private void remove(T tileEntity)
+        {
+            long key = getSectionKey(tileEntity.getPos());
+            Set<T> entries = sections.get(key);
+            if(entries != null && entries.remove(tileEntity))
+            {
+                size--;
+                if(entries.isEmpty())
+                {
+                    sections.remove(key);
+                }
+            }
+        }
+
+        private List<T> getInRange(BlockPos center, int range)
+        {
+            if(size == 0)
+                return Collections.emptyList();
+
+            int minX = center.getX() - range, maxX = center.getX() + range;
+            int minY = center.getY() - range, maxY = center.getY() + range;
+            int minZ = center.getZ() - range, maxZ = center.getZ() + range;
+
+            List<T> found = new ArrayList<>();
+            for(int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++)
+            {
+                for(int sectionZ = minZ >> 4; sectionZ <= maxZ >> 4; sectionZ++)
+                {
+                    for(int sectionX = minX >> 4; sectionX <= maxX >> 4; sectionX++)
+                    {
+                        Set<T> entries = sections.get(getSectionKey(sectionX, sectionY, sectionZ));
+                        if(entries == null)
+                            continue;
+
+                        for(T tileEntity : entries)
+                        {
+                            BlockPos pos = tileEntity.getPos();
+                            if(pos.getX() >= minX && pos.getX() <= maxX && pos.getY() >= minY && pos.getY() <= maxY && pos.getZ() >= minZ && pos.getZ() <= maxZ)
+                            {
+                                found.add(tileEntity);
+                            }
+                        }
+                    }
+                }
+            }
+            return found;
+        }
+    }
+}
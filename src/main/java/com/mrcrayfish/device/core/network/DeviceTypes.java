@@ -0,0 +1,79 @@
+package com.mrcrayfish.device.core.network;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives every kind of network device an id, so routers can group their devices by type and
+ * clients can ask for a type without the server having to look up classes by name.
+ *
+ * Author: MrCrayfish
+ */
+public class DeviceTypes
+{
+    private static final BiMap<String, Class<? extends TileEntityNetworkDevice>> TYPES = HashBiMap.create();
+    private static final Map<Class<?>, Set<String>> ASSIGNABLE_TYPES = new ConcurrentHashMap<>();
+
+    public static void register(String id, Class<? extends TileEntityNetworkDevice> type)
+    {
+        TYPES.put(id, type);
+        ASSIGNABLE_TYPES.clear();
+    }
+
+    /**
+     * Gets the id of a device type. If the class itself is not registered, the id of the closest
+     * registered super class is used.
+     *
+     * @param type the class of the device
+     * @return the id or null if the class is not a registered device type
+     */
+    @Nullable
+    public static String getId(Class<?> type)
+    {
+        while(type != null && TileEntityNetworkDevice.class.isAssignableFrom(type))
+        {
+            String id = TYPES.inverse().get(type);
+            if(id != null)
+                return id;
+            type = type.getSuperclass();
+        }
+        return null;
+    }
+
+    @Nullable
+    public static Class<? extends TileEntityNetworkDevice> getType(String id)
+    {
+        return TYPES.get(id);
+    }
+
+    /**
+     * Gets the ids of every registered device type that is the same as or a sub class of the
+     * specified class. The result is computed once per class.
+     *
+     * @param type the class
+     * @return the ids of the matching types
+     */
+    public static Set<String> getAssignableIds(Class<?> type)
+    {
+        return ASSIGNABLE_TYPES.computeIfAbsent(type, c ->
+        {
+            Set<String> ids = new HashSet<>();
+            TYPES.forEach((id, registered) ->
+            {
+                if(c.isAssignableFrom(registered))
+                {
+                    ids.add(id);
+                }
+            });
+            return Collections.unmodifiableSet(ids);
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package com.mrcrayfish.device.core.network;
 
 import com.mrcrayfish.device.core.Device;
+import com.mrcrayfish.device.tileentity.TileEntityDevice;
 import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
@@ -16,6 +17,8 @@ import java.util.UUID;
  */
 public class NetworkDevice extends Device
 {
+    private String type;
+
     private NetworkDevice() {}
 
     public NetworkDevice(TileEntityNetworkDevice device)
@@ -28,12 +31,48 @@ public class NetworkDevice extends Device
         super(id, name);
     }
 
+    @Override
+    public void update(TileEntityDevice device)
+    {
+        super.update(device);
+        if(device instanceof TileEntityNetworkDevice)
+        {
+            type = DeviceTypes.getId(device.getClass());
+        }
+    }
+
+    /**
+     * Gets the id of the type of this device, as registered in {@link DeviceTypes}. This is known
+     * once the device has connected to the router and doesn't require the device to be loaded.
+     *
+     * @return the type id or null if not known yet
+     */
+    @Nullable
+    public String getType()
+    {
+        return type;
+    }
+
+    /**
+     * Checks if this device is connected but in a chunk that is not loaded. Dormant devices stay
+     * connected to their router and come back once their chunk is loaded again.
+     *
+     * @param world the world of the router
+     * @return true if the device is dormant
+     */
+    public boolean isDormant(World world)
+    {
+        return pos != null && !NetworkLookup.isLoaded(world, pos);
+    }
+
     public boolean isConnected(World world)
     {
         if(pos == null)
             return false;
+        if(isDormant(world))
+            return true;
 
-        TileEntity tileEntity = world.getTileEntity(pos);
+        TileEntity tileEntity = NetworkLookup.getTileEntity(world, pos);
         if(tileEntity instanceof TileEntityNetworkDevice)
         {
             TileEntityNetworkDevice device = (TileEntityNetworkDevice) tileEntity;
@@ -50,7 +89,7 @@ public class NetworkDevice extends Device
         if(pos == null)
             return null;
 
-        TileEntity tileEntity = world.getTileEntity(pos);
+        TileEntity tileEntity = NetworkLookup.getTileEntity(world, pos);
         if(tileEntity instanceof TileEntityNetworkDevice)
         {
             TileEntityNetworkDevice tileEntityNetworkDevice = (TileEntityNetworkDevice) tileEntity;
@@ -69,6 +108,10 @@ public class NetworkDevice extends Device
         {
             tag.setLong("pos", pos.toLong());
         }
+        if(type != null)
+        {
+            tag.setString("type", type);
+        }
         return tag;
     }
 
@@ -81,6 +124,10 @@ public class NetworkDevice extends Device
         {
             device.pos = BlockPos.fromLong(tag.getLong("pos"));
         }
+        if(tag.hasKey("type", Constants.NBT.TAG_STRING))
+        {
+            device.type = tag.getString("type");
+        }
         return device;
     }
 }
@@ -0,0 +1,184 @@
+package com.mrcrayfish.device.core.network;
+
+import com.mrcrayfish.device.network.PacketHandler;
+import com.mrcrayfish.device.network.task.MessageNetworkStats;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects statistics about the networks of the server and pushes them once a second to the
+ * players that have the network diagnostics application open. Nothing is collected into a
+ * snapshot while nobody is watching, only the cheap counters are updated.
+ *
+ * Author: MrCrayfish
+ */
+public class NetworkDiagnostics
+{
+    public static final NetworkDiagnostics INSTANCE = new NetworkDiagnostics();
+
+    private static final int PUSH_INTERVAL = 20;
+
+    private final Set<UUID> watchers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Timings> taskTimings = new ConcurrentHashMap<>();
+    private final Timings beaconTimings = new Timings();
+    private int timer;
+
+    private NetworkDiagnostics() {}
+
+    public void watch(EntityPlayer player)
+    {
+        watchers.add(player.getUniqueID());
+    }
+
+    public void unwatch(EntityPlayer player)
+    {
+        watchers.remove(player.getUniqueID());
+    }
+
+    /**
+     * Records the time it took the server to process a task.
+     *
+     * @param name the name of the task
+     * @param nanos the time in nanoseconds
+     */
+    public void recordTask(String name, long nanos)
+    {
+        taskTimings.computeIfAbsent(name, n -> new Timings()).record(nanos);
+    }
+
+    /**
+     * Records the time it took a router to send a beacon to the devices in its range.
+     *
+     * @param nanos the time in nanoseconds
+     */
+    public void recordBeacon(long nanos)
+    {
+        beaconTimings.record(nanos);
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if(event.phase != TickEvent.Phase.END || ++timer < PUSH_INTERVAL)
+            return;
+
+        timer = 0;
+        if(watchers.isEmpty())
+            return;
+
+        MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+        if(server == null)
+            return;
+
+        NBTTagCompound sharedTag = new NBTTagCompound();
+        sharedTag.setTag("beacons", beaconTimings.toTagAndReset());
+        NBTTagList taskList = new NBTTagList();
+        taskTimings.forEach((name, timings) ->
+        {
+            NBTTagCompound taskTag = timings.toTagAndReset();
+            taskTag.setString("name", name);
+            taskList.appendTag(taskTag);
+        });
+        sharedTag.setTag("tasks", taskList);
+        sharedTag.setLong("avoidedLoads", NetworkLookup.getAvoidedLoads());
+
+        /* Players in the same world get the same snapshot */
+        Map<World, NBTTagList> routerLists = new HashMap<>();
+        for(UUID id : watchers)
+        {
+            EntityPlayerMP player = server.getPlayerList().getPlayerByUUID(id);
+            if(player == null)
+            {
+                watchers.remove(id);
+                continue;
+            }
+
+            NBTTagCompound statsTag = sharedTag.copy();
+            statsTag.setTag("routers", routerLists.computeIfAbsent(player.world, this::createRouterList));
+            statsTag.setInteger("scheduled", NetworkScheduler.INSTANCE.getScheduledCount(player.world));
+            PacketHandler.INSTANCE.sendTo(new MessageNetworkStats(statsTag), player);
+        }
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event)
+    {
+        unwatch(event.player);
+    }
+
+    private NBTTagList createRouterList(World world)
+    {
+        NBTTagList routerList = new NBTTagList();
+        for(RouterRegistry.Entry entry : RouterRegistry.get(world).getEntries())
+        {
+            NBTTagCompound routerTag = new NBTTagCompound();
+            routerTag.setUniqueId("id", entry.getId());
+            routerTag.setString("name", entry.getName() != null ? entry.getName() : "Router");
+            routerTag.setLong("pos", entry.getPos().toLong());
+            routerTag.setBoolean("loaded", entry.isLoaded());
+
+            Router router = RouterRegistry.get(world).getRouter(entry.getId());
+            if(router != null)
+            {
+                routerTag.setInteger("devices", router.getNetworkDevices().size());
+                routerTag.setInteger("connected", router.getConnectedCount());
+                routerTag.setInteger("links", RouterMesh.get(world).getLinks(router.getId()).size());
+                routerTag.setInteger("queueDepth", router.getQueueDepth());
+                routerTag.setInteger("queuedBytes", router.getQueuedBytes());
+                routerTag.setInteger("throughput", router.getThroughput());
+                routerTag.setLong("delivered", router.getDeliveredMessages());
+                routerTag.setLong("dropped", router.getDroppedMessages());
+            }
+            else
+            {
+                routerTag.setInteger("devices", entry.getDeviceCount());
+                routerTag.setInteger("connected", entry.getConnectedCount());
+            }
+            routerList.appendTag(routerTag);
+        }
+        return routerList;
+    }
+
+    /**
+     * The count, average and maximum of the times recorded since the last push.
+     */
+    private static class Timings
+    {
+        private int count;
+        private long total;
+        private long max;
+
+        private synchronized void record(long nanos)
+        {
+            count++;
+            total += nanos;
+            max = Math.max(max, nanos);
+        }
+
+        private synchronized NBTTagCompound toTagAndReset()
+        {
+            NBTTagCompound tag = new NBTTagCompound();
+            tag.setInteger("count", count);
+            tag.setLong("average", count > 0 ? total / count : 0);
+            tag.setLong("max", max);
+            count = 0;
+            total = 0;
+            max = 0;
+            return tag;
+        }
+    }
+}
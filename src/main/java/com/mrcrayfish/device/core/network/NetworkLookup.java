@@ -0,0 +1,69 @@
+package com.mrcrayfish.device.core.network;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Looks up the tile entities of routers and devices without loading chunks. Positions stored by
+ * routers, cables and drives can point into chunks that have since been unloaded, and getting
+ * the tile entity at those positions would load or even generate the chunk. Devices in unloaded
+ * chunks should be treated as dormant rather than disconnected.
+ *
+ * Author: MrCrayfish
+ */
+public class NetworkLookup
+{
+    private static final AtomicLong AVOIDED_LOADS = new AtomicLong();
+
+    /**
+     * Gets the tile entity at a position if the chunk it is in is loaded.
+     *
+     * @param world the world
+     * @param pos the position
+     * @return the tile entity or null if there is none or the chunk is not loaded
+     */
+    @Nullable
+    public static TileEntity getTileEntity(World world, @Nullable BlockPos pos)
+    {
+        if(pos == null)
+            return null;
+
+        if(!world.isBlockLoaded(pos))
+        {
+            AVOIDED_LOADS.incrementAndGet();
+            return null;
+        }
+        return world.getTileEntity(pos);
+    }
+
+    /**
+     * Gets the tile entity at a position if the chunk it is in is loaded and it is of the
+     * specified type.
+     */
+    @Nullable
+    public static <T> T getTileEntity(World world, @Nullable BlockPos pos, Class<T> type)
+    {
+        TileEntity tileEntity = getTileEntity(world, pos);
+        return type.isInstance(tileEntity) ? type.cast(tileEntity) : null;
+    }
+
+    public static boolean isLoaded(World world, @Nullable BlockPos pos)
+    {
+        return pos != null && world.isBlockLoaded(pos);
+    }
+
+    /**
+     * Gets the amount of lookups that were skipped because the chunk was not loaded, each one a
+     * chunk load that would have happened otherwise.
+     *
+     * @return the amount of avoided chunk loads since the server started
+     */
+    public static long getAvoidedLoads()
+    {
+        return AVOIDED_LOADS.get();
+    }
+}
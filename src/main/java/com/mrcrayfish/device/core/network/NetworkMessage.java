@@ -0,0 +1,93 @@
+package com.mrcrayfish.device.core.network;
+
+import com.mrcrayfish.device.core.io.PackedData;
+import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
+import net.minecraft.nbt.NBTTagCompound;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A payload sent from one network device to another through their router. The size of the
+ * payload decides how much of the bandwidth of the router it takes up.
+ *
+ * Author: MrCrayfish
+ */
+public class NetworkMessage
+{
+    private static final Map<String, Handler> HANDLERS = new HashMap<>();
+
+    private final UUID source;
+    private final UUID destination;
+    private final String channel;
+    private final NBTTagCompound payload;
+    private final int size;
+
+    /* The tick of the router this message can be delivered at */
+    long readyTick;
+
+    public NetworkMessage(UUID source, UUID destination, String channel, NBTTagCompound payload)
+    {
+        this.source = source;
+        this.destination = destination;
+        this.channel = channel;
+        this.payload = payload;
+        this.size = PackedData.sizeOf(payload) + channel.length() + 32;
+    }
+
+    public UUID getSource()
+    {
+        return source;
+    }
+
+    public UUID getDestination()
+    {
+        return destination;
+    }
+
+    public String getChannel()
+    {
+        return channel;
+    }
+
+    public NBTTagCompound getPayload()
+    {
+        return payload;
+    }
+
+    /**
+     * Gets the size of this message in bytes. This is the size of the payload when written to a
+     * stream plus the size of the addressing.
+     *
+     * @return the size in bytes
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Registers a handler for messages sent on a channel. Devices pass the messages they receive
+     * to the handler of the channel, unless they handle the channel themselves.
+     *
+     * @param channel the channel, usually prefixed with the mod or app id
+     * @param handler the handler
+     */
+    public static void registerHandler(String channel, Handler handler)
+    {
+        HANDLERS.put(channel, handler);
+    }
+
+    @Nullable
+    public static Handler getHandler(String channel)
+    {
+        return HANDLERS.get(channel);
+    }
+
+    public interface Handler
+    {
+        void onMessage(TileEntityNetworkDevice device, NetworkMessage message);
+    }
+}
@@ -0,0 +1,145 @@
+package com.mrcrayfish.device.core.network;
+
+import com.mrcrayfish.device.DeviceConfig;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+
+/**
+ * Runs the connection sweeps of routers and devices on the server thread. Each sweep is given a
+ * random start within the beacon interval so routers placed or loaded in the same tick don't
+ * sweep in the same tick, and every tick only a limited amount of sweeps are run. Sweeps of
+ * routers and devices with no players nearby are run less often.
+ *
+ * Author: MrCrayfish
+ */
+public class NetworkScheduler
+{
+    public static final NetworkScheduler INSTANCE = new NetworkScheduler();
+
+    /* The distance in blocks a player has to be within for a sweep to run at the normal interval */
+    private static final double ACTIVE_RANGE = 128.0;
+    private static final int IDLE_MULTIPLIER = 4;
+
+    private final Map<World, Schedule> schedules = new WeakHashMap<>();
+
+    private NetworkScheduler() {}
+
+    /**
+     * Schedules work to be run repeatedly every beacon interval until it is cancelled. Scheduling
+     * the same tile entity again replaces its work.
+     *
+     * @param owner the tile entity the work belongs to
+     * @param work the work
+     */
+    public void schedule(TileEntity owner, Runnable work)
+    {
+        World world = owner.getWorld();
+        Schedule schedule = schedules.computeIfAbsent(world, w -> new Schedule());
+        cancel(owner);
+
+        Entry entry = new Entry(owner.getPos(), work, world.getTotalWorldTime() + world.rand.nextInt(DeviceConfig.getBeaconInterval()) + 1);
+        schedule.entries.put(owner, entry);
+        schedule.queue.add(entry);
+    }
+
+    public void cancel(TileEntity owner)
+    {
+        Schedule schedule = schedules.get(owner.getWorld());
+        if(schedule != null)
+        {
+            Entry entry = schedule.entries.remove(owner);
+            if(entry != null)
+            {
+                entry.cancelled = true;
+            }
+        }
+    }
+
+    public int getScheduledCount(World world)
+    {
+        Schedule schedule = schedules.get(world);
+        return schedule != null ? schedule.entries.size() : 0;
+    }
+
+    public long getThrottledCount(World world)
+    {
+        Schedule schedule = schedules.get(world);
+        return schedule != null ? schedule.throttled : 0;
+    }
+
+    @SubscribeEvent
+    public void onWorldTick(TickEvent.WorldTickEvent event)
+    {
+        if(event.phase != TickEvent.Phase.END || event.world.isRemote)
+            return;
+
+        Schedule schedule = schedules.get(event.world);
+        if(schedule == null)
+            return;
+
+        World world = event.world;
+        long time = world.getTotalWorldTime();
+        int interval = DeviceConfig.getBeaconInterval();
+        int budget = DeviceConfig.getSweepBudget();
+        while(budget > 0 && !schedule.queue.isEmpty() && schedule.queue.peek().dueTime <= time)
+        {
+            Entry entry = schedule.queue.poll();
+            if(entry.cancelled)
+                continue;
+
+            BlockPos pos = entry.pos;
+            if(!world.isAnyPlayerWithinRangeAt(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, ACTIVE_RANGE) && !entry.throttled)
+            {
+                /* Nobody is around to notice, so wait a few more intervals before sweeping */
+                entry.throttled = true;
+                entry.dueTime = time + interval * (IDLE_MULTIPLIER - 1);
+                schedule.queue.add(entry);
+                schedule.throttled++;
+                continue;
+            }
+
+            entry.work.run();
+            budget--;
+
+            /* The work may have cancelled itself */
+            if(!entry.cancelled)
+            {
+                entry.throttled = false;
+                entry.dueTime = time + interval;
+                schedule.queue.add(entry);
+            }
+        }
+    }
+
+    private static class Schedule
+    {
+        private final Map<TileEntity, Entry> entries = new HashMap<>();
+        private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.dueTime));
+        private long throttled;
+    }
+
+    private static class Entry
+    {
+        private final BlockPos pos;
+        private final Runnable work;
+        private long dueTime;
+        private boolean throttled;
+        private boolean cancelled;
+
+        private Entry(BlockPos pos, Runnable work, long dueTime)
+        {
+            this.pos = pos;
+            this.work = work;
+            this.dueTime = dueTime;
+        }
+    }
+}
@@ -2,19 +2,30 @@ package com.mrcrayfish.device.core.network;
 
 import com.mrcrayfish.device.DeviceConfig;
 import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
+import com.mrcrayfish.device.tileentity.TileEntityRouter;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagString;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.util.Constants;
 
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -22,9 +33,29 @@ import java.util.stream.Collectors;
  */
 public class Router
 {
+    private static final Random RANDOM = new Random();
+    private static final int MAX_REMOVED_CHANGES = 64;
+
     private final Map<UUID, NetworkDevice> NETWORK_DEVICES = new HashMap<>();
+    private final Map<String, Set<UUID>> DEVICES_BY_TYPE = new HashMap<>();
+    private final Set<UUID> CABLE_LINKS = new HashSet<>();
+
+    /* The sequence of the last change of each device that joined, left or moved, oldest first */
+    private final Map<UUID, Long> CHANGES = new LinkedHashMap<>();
+    private int epoch = RANDOM.nextInt();
+    private long sequence;
+    private long trimmedSequence;
 
-    private int timer;
+    private final Deque<NetworkMessage> messageQueue = new ArrayDeque<>();
+    private long ticks;
+    private long credit;
+    private int queuedBytes;
+    private int windowBytes;
+    private int throughput;
+    private long deliveredMessages;
+    private long droppedMessages;
+
+    private boolean beaconRequested;
     private UUID routerId;
     private BlockPos pos;
 
@@ -33,13 +64,139 @@ public class Router
         this.pos = pos;
     }
 
+    /**
+     * Devices are connected and disconnected as they and the router are loaded, placed and
+     * broken, so the slow sweep in case one of those events was missed is run by the
+     * {@link NetworkScheduler}. A beacon is only sent here when a device was just registered.
+     */
     public void update(World world)
     {
-        if(++timer >= DeviceConfig.getBeaconInterval())
+        ticks++;
+        processMessages(world);
+
+        if(beaconRequested)
         {
             sendBeacon(world);
-            timer = 0;
+            beaconRequested = false;
+        }
+    }
+
+    /**
+     * Queues a message to be delivered to a device registered to this router or to a router this
+     * router is linked to. The message passes through every router on the way, taking up their
+     * latency and bandwidth.
+     *
+     * @param world the world of the router
+     * @param message the message
+     * @return true if the message was queued, false if the destination is unknown or the queue is
+     *         full
+     */
+    public boolean send(World world, NetworkMessage message)
+    {
+        if(!NETWORK_DEVICES.containsKey(message.getDestination()) && findRouterWithDevice(world, message.getDestination()) == null)
+            return false;
+        return enqueue(message);
+    }
+
+    private boolean enqueue(NetworkMessage message)
+    {
+        if(queuedBytes + message.getSize() > DeviceConfig.getMaxQueueSize() * 1024)
+        {
+            droppedMessages++;
+            return false;
         }
+        message.readyTick = ticks + DeviceConfig.getLatency();
+        messageQueue.add(message);
+        queuedBytes += message.getSize();
+        return true;
+    }
+
+    private void processMessages(World world)
+    {
+        if(ticks % 20 == 0)
+        {
+            throughput = windowBytes;
+            windowBytes = 0;
+        }
+
+        NetworkMessage next = messageQueue.peek();
+        if(next == null)
+        {
+            credit = 0;
+            return;
+        }
+
+        /* Messages are delivered after leaving the queue, as delivering can queue new messages */
+        List<NetworkMessage> delivered = new ArrayList<>();
+
+        /* Bandwidth not used while waiting only carries over up to the size of the next message */
+        int bandwidth = DeviceConfig.getBandwidth();
+        credit = Math.min(credit + bandwidth, Math.max(bandwidth, next.getSize()));
+        while(next != null && next.readyTick <= ticks && credit >= next.getSize())
+        {
+            messageQueue.poll();
+            credit -= next.getSize();
+            queuedBytes -= next.getSize();
+            windowBytes += next.getSize();
+            delivered.add(next);
+            next = messageQueue.peek();
+        }
+
+        for(NetworkMessage message : delivered)
+        {
+            if(NETWORK_DEVICES.containsKey(message.getDestination()))
+            {
+                TileEntityNetworkDevice device = getDevice(world, message.getDestination());
+                if(device != null)
+                {
+                    device.receiveMessage(message);
+                    deliveredMessages++;
+                    continue;
+                }
+            }
+            else
+            {
+                UUID destination = findRouterWithDevice(world, message.getDestination());
+                UUID nextHop = destination != null ? RouterMesh.get(world).getNextHop(getId(), destination) : null;
+                Router next = nextHop != null ? RouterRegistry.get(world).getRouter(nextHop) : null;
+                if(next != null && next.enqueue(message))
+                {
+                    deliveredMessages++;
+                    continue;
+                }
+            }
+            droppedMessages++;
+        }
+    }
+
+    public int getQueueDepth()
+    {
+        return messageQueue.size();
+    }
+
+    public int getQueuedBytes()
+    {
+        return queuedBytes;
+    }
+
+    /**
+     * Gets the amount of bytes delivered by this router during the last second.
+     *
+     * @return the throughput in bytes per second
+     */
+    public int getThroughput()
+    {
+        return throughput;
+    }
+
+    public long getDeliveredMessages()
+    {
+        return deliveredMessages;
+    }
+
+    public long getDroppedMessages()
+    {
+        return droppedMessages;
     }
 
     public boolean addDevice(UUID id, String name)
@@ -51,8 +208,9 @@ public class Router
         if(!NETWORK_DEVICES.containsKey(id))
         {
             NETWORK_DEVICES.put(id, new NetworkDevice(id, name, this));
+            markChanged(id);
         }
-        timer = DeviceConfig.getBeaconInterval();
+        beaconRequested = true;
         return true;
     }
 
@@ -64,7 +222,10 @@ public class Router
         }
         if(!NETWORK_DEVICES.containsKey(device.getId()))
         {
-            NETWORK_DEVICES.put(device.getId(), new NetworkDevice(device));
+            NetworkDevice networkDevice = new NetworkDevice(device);
+            NETWORK_DEVICES.put(device.getId(), networkDevice);
+            indexType(networkDevice);
+            markChanged(device.getId());
         }
         return true;
     }
@@ -74,6 +235,136 @@ public class Router
         return NETWORK_DEVICES.containsKey(device.getId());
     }
 
+    public boolean hasDevice(UUID id)
+    {
+        return NETWORK_DEVICES.containsKey(id);
+    }
+
+    /**
+     * Finds the closest router linked to this router that has the specified device registered.
+     *
+     * @param world the world of the router
+     * @param deviceId the id of the device
+     * @return the id of the router or null if no reachable router has the device
+     */
+    @Nullable
+    public UUID findRouterWithDevice(World world, UUID deviceId)
+    {
+        RouterRegistry registry = RouterRegistry.get(world);
+        for(UUID routerId : RouterMesh.get(world).getReachable(getId()))
+        {
+            Router router = registry.getRouter(routerId);
+            if(router != null && router.hasDevice(deviceId))
+            {
+                return routerId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a device reachable from this router is of one of the specified types. The type
+     * is looked up on the router the device is registered to.
+     *
+     * @param world the world of the router
+     * @param deviceId the id of the device
+     * @param typeIds the ids of the device types
+     * @return true if the device is reachable and of one of the types
+     */
+    public boolean isDeviceOfType(World world, UUID deviceId, Collection<String> typeIds)
+    {
+        Router router = this;
+        if(!hasDevice(deviceId))
+        {
+            UUID routerId = findRouterWithDevice(world, deviceId);
+            router = routerId != null ? RouterRegistry.get(world).getRouter(routerId) : null;
+            if(router == null)
+                return false;
+        }
+        for(String typeId : typeIds)
+        {
+            Set<UUID> ids = router.DEVICES_BY_TYPE.get(typeId);
+            if(ids != null && ids.contains(deviceId))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Links this router to the loaded routers in mesh range and the loaded routers it is linked to
+     * with a cable. Called when the router is loaded or placed.
+     */
+    public void joinMesh(World world)
+    {
+        RouterMesh mesh = RouterMesh.get(world);
+        int range = DeviceConfig.getMeshRange();
+        if(range > 0)
+        {
+            for(TileEntityRouter tileEntityRouter : DeviceIndex.get(world).getRoutersInRange(pos, range))
+            {
+                mesh.link(getId(), tileEntityRouter.getRouter().getId());
+            }
+        }
+        RouterRegistry registry = RouterRegistry.get(world);
+
+        /* Routers broken while this router was unloaded could not remove their link */
+        CABLE_LINKS.removeIf(id -> registry.getEntry(id) == null);
+
+        for(UUID id : CABLE_LINKS)
+        {
+            if(registry.getRouter(id) != null)
+            {
+                mesh.link(getId(), id);
+            }
+        }
+    }
+
+    public void leaveMesh(World world)
+    {
+        RouterMesh.get(world).removeRouter(getId());
+    }
+
+    /**
+     * Links this router and another router with a cable, so they are linked regardless of the
+     * distance between them.
+     *
+     * @return false if the routers were already linked with a cable
+     */
+    public boolean addCableLink(World world, Router other)
+    {
+        if(!CABLE_LINKS.add(other.getId()))
+            return false;
+
+        other.CABLE_LINKS.add(getId());
+        RouterMesh.get(world).link(getId(), other.getId());
+        return true;
+    }
+
+    /**
+     * Removes the cable links of this router from the routers it is linked to. Called when the
+     * router is broken. Linked routers that are not loaded remove the link when they are loaded
+     * again, see {@link #joinMesh(World)}.
+     */
+    public void removeCableLinks(World world)
+    {
+        RouterRegistry registry = RouterRegistry.get(world);
+        RouterMesh mesh = RouterMesh.get(world);
+        for(UUID id : CABLE_LINKS)
+        {
+            Router other = registry.getRouter(id);
+            if(other != null && other.CABLE_LINKS.remove(getId()))
+            {
+                TileEntity tileEntity = NetworkLookup.getTileEntity(world, other.getPos());
+                if(tileEntity != null)
+                {
+                    tileEntity.markDirty();
+                }
+            }
+            mesh.unlink(getId(), id);
+        }
+        CABLE_LINKS.clear();
+    }
+
     public boolean isDeviceConnected(TileEntityNetworkDevice device)
     {
         return isDeviceRegistered(device) && NETWORK_DEVICES.get(device.getId()).getPos() != null;
@@ -81,7 +372,11 @@ public class Router
 
     public void removeDevice(TileEntityNetworkDevice device)
     {
-        NETWORK_DEVICES.remove(device.getId());
+        if(NETWORK_DEVICES.remove(device.getId()) != null)
+        {
+            DEVICES_BY_TYPE.values().forEach(ids -> ids.remove(device.getId()));
+            markChanged(device.getId());
+        }
     }
 
     @Nullable
@@ -95,57 +390,289 @@ public class Router
         return NETWORK_DEVICES.values();
     }
 
+    public int getConnectedCount()
+    {
+        return (int) NETWORK_DEVICES.values().stream().filter(networkDevice -> networkDevice.getPos() != null).count();
+    }
+
     public Collection<NetworkDevice> getConnectedDevices(World world)
     {
-        sendBeacon(world);
         return NETWORK_DEVICES.values().stream().filter(networkDevice -> networkDevice.getPos() != null).collect(Collectors.toList());
     }
 
     public Collection<NetworkDevice> getConnectedDevices(final World world, Class<? extends TileEntityNetworkDevice> type)
     {
-        final Predicate<NetworkDevice> DEVICE_TYPE = networkDevice ->
+        return getConnectedDevices(DeviceTypes.getAssignableIds(type));
+    }
+
+    /**
+     * Gets the connected devices of the specified types. This only looks at the devices grouped
+     * by type and doesn't need the devices to be looked up in the world.
+     *
+     * @param typeIds the ids of the device types
+     * @return the connected devices of those types
+     */
+    public Collection<NetworkDevice> getConnectedDevices(Collection<String> typeIds)
+    {
+        List<NetworkDevice> found = new ArrayList<>();
+        for(String typeId : typeIds)
         {
-            if(networkDevice.getPos() == null)
-                return false;
+            Set<UUID> ids = DEVICES_BY_TYPE.get(typeId);
+            if(ids == null)
+                continue;
 
-            TileEntity tileEntity = world.getTileEntity(networkDevice.getPos());
-            if(tileEntity instanceof TileEntityNetworkDevice)
+            for(UUID id : ids)
             {
-                return type.isAssignableFrom(tileEntity.getClass());
+                NetworkDevice networkDevice = NETWORK_DEVICES.get(id);
+                if(networkDevice != null && networkDevice.getPos() != null)
+                {
+                    found.add(networkDevice);
+                }
             }
-            return false;
-        };
-        return getConnectedDevices(world).stream().filter(DEVICE_TYPE).collect(Collectors.toList());
+        }
+        return found;
+    }
+
+    private void updateDevice(NetworkDevice networkDevice, TileEntityNetworkDevice device)
+    {
+        String type = networkDevice.getType();
+        networkDevice.update(device);
+        if(!Objects.equals(type, networkDevice.getType()))
+        {
+            indexType(networkDevice);
+        }
+    }
+
+    private void indexType(NetworkDevice networkDevice)
+    {
+        DEVICES_BY_TYPE.values().forEach(ids -> ids.remove(networkDevice.getId()));
+        if(networkDevice.getType() != null)
+        {
+            DEVICES_BY_TYPE.computeIfAbsent(networkDevice.getType(), type -> new HashSet<>()).add(networkDevice.getId());
+        }
+    }
+
+    /**
+     * Called when a device in range of this router is loaded or placed, or is looking for a
+     * router after losing its connection.
+     *
+     * @param device the device
+     */
+    public void onDeviceLoaded(TileEntityNetworkDevice device)
+    {
+        NetworkDevice networkDevice = NETWORK_DEVICES.get(device.getId());
+        if(networkDevice != null && device.receiveBeacon(this))
+        {
+            BlockPos lastPos = networkDevice.getPos();
+            String lastName = networkDevice.getName();
+            updateDevice(networkDevice, device);
+            if(!Objects.equals(lastPos, networkDevice.getPos()) || !Objects.equals(lastName, networkDevice.getName()))
+            {
+                markChanged(networkDevice.getId());
+            }
+        }
     }
 
-    private void sendBeacon(World world)
+    /**
+     * Called when a device connected to this router is broken. Devices that are unloaded with
+     * their chunk stay connected as dormant devices.
+     *
+     * @param device the device
+     */
+    public void onDeviceRemoved(TileEntityNetworkDevice device)
+    {
+        NetworkDevice networkDevice = NETWORK_DEVICES.get(device.getId());
+        if(networkDevice != null && networkDevice.getPos() != null)
+        {
+            networkDevice.setPos(null);
+            markChanged(networkDevice.getId());
+        }
+    }
+
+    /**
+     * Disconnects the devices connected to this router when the router is unloaded or broken. The
+     * devices will look for another router they are registered to.
+     */
+    public void disconnectDevices(World world)
     {
         if(world.isRemote)
             return;
 
-        NETWORK_DEVICES.forEach((id, device) -> device.setPos(null));
+        for(TileEntityNetworkDevice device : DeviceIndex.get(world).getDevicesInRange(pos, DeviceConfig.getSignalRange()))
+        {
+            if(NETWORK_DEVICES.containsKey(device.getId()))
+            {
+                device.onRouterLost(this);
+            }
+        }
+        NETWORK_DEVICES.forEach((id, device) ->
+        {
+            if(device.getPos() != null)
+            {
+                device.setPos(null);
+                markChanged(id);
+            }
+        });
+    }
+
+    public boolean isInRange(BlockPos devicePos)
+    {
         int range = DeviceConfig.getSignalRange();
-        for(int y = -range; y < range + 1; y++)
+        return Math.abs(devicePos.getX() - pos.getX()) <= range && Math.abs(devicePos.getY() - pos.getY()) <= range && Math.abs(devicePos.getZ() - pos.getZ()) <= range;
+    }
+
+    public void sendBeacon(World world)
+    {
+        if(world.isRemote)
+            return;
+
+        long start = System.nanoTime();
+        Map<UUID, BlockPos> lastPositions = new HashMap<>();
+        NETWORK_DEVICES.forEach((id, device) ->
         {
-            for(int z = -range; z < range + 1; z++)
+            lastPositions.put(id, device.getPos());
+            if(!device.isDormant(world))
             {
-                for(int x = -range; x < range + 1; x++)
-                {
-                    BlockPos currentPos = new BlockPos(pos.getX() + x, pos.getY() + y, pos.getZ() + z);
-                    TileEntity tileEntity = world.getTileEntity(currentPos);
-                    if(tileEntity instanceof TileEntityNetworkDevice)
-                    {
-                        TileEntityNetworkDevice tileEntityNetworkDevice = (TileEntityNetworkDevice) tileEntity;
-                        if(!NETWORK_DEVICES.containsKey(tileEntityNetworkDevice.getId()))
-                            continue;
-                        if(tileEntityNetworkDevice.receiveBeacon(this))
-                        {
-                            NETWORK_DEVICES.get(tileEntityNetworkDevice.getId()).update(tileEntityNetworkDevice);
-                        }
-                    }
-                }
+                device.setPos(null);
+            }
+        });
+        for(TileEntityNetworkDevice tileEntityNetworkDevice : DeviceIndex.get(world).getDevicesInRange(pos, DeviceConfig.getSignalRange()))
+        {
+            if(!NETWORK_DEVICES.containsKey(tileEntityNetworkDevice.getId()))
+                continue;
+            if(tileEntityNetworkDevice.receiveBeacon(this))
+            {
+                updateDevice(NETWORK_DEVICES.get(tileEntityNetworkDevice.getId()), tileEntityNetworkDevice);
             }
         }
+        NETWORK_DEVICES.forEach((id, device) ->
+        {
+            if(!Objects.equals(lastPositions.get(id), device.getPos()))
+            {
+                markChanged(id);
+            }
+        });
+        NetworkDiagnostics.INSTANCE.recordBeacon(System.nanoTime() - start);
+    }
+
+    /**
+     * Records that a device joined, left or moved. Only the latest change of each device is kept,
+     * and the changes of devices that left are only kept until there are too many of them.
+     */
+    private void markChanged(UUID id)
+    {
+        CHANGES.remove(id);
+        CHANGES.put(id, ++sequence);
+
+        Iterator<Map.Entry<UUID, Long>> it = CHANGES.entrySet().iterator();
+        while(CHANGES.size() > NETWORK_DEVICES.size() + MAX_REMOVED_CHANGES && it.hasNext())
+        {
+            Map.Entry<UUID, Long> entry = it.next();
+            if(!NETWORK_DEVICES.containsKey(entry.getKey()))
+            {
+                trimmedSequence = entry.getValue();
+                it.remove();
+            }
+        }
+    }
+
+    public int getEpoch()
+    {
+        return epoch;
+    }
+
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * Creates a tag with the changes to the devices of this router since a sequence. The epoch is
+     * different every time the router is loaded, so a client can tell when the sequence restarted.
+     *
+     * @param since the sequence the client has
+     * @return the changes or null if they are no longer known and the client needs every device
+     */
+    @Nullable
+    public NBTTagCompound toDeltaTag(long since)
+    {
+        if(since < trimmedSequence || since > sequence)
+            return null;
+
+        NBTTagList changeList = new NBTTagList();
+        CHANGES.forEach((id, changeSequence) ->
+        {
+            if(changeSequence <= since)
+                return;
+
+            NetworkDevice device = NETWORK_DEVICES.get(id);
+            if(device != null)
+            {
+                changeList.appendTag(device.toTag(true));
+            }
+            else
+            {
+                NBTTagCompound removedTag = new NBTTagCompound();
+                removedTag.setString("id", id.toString());
+                removedTag.setBoolean("removed", true);
+                changeList.appendTag(removedTag);
+            }
+        });
+
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setUniqueId("id", getId());
+        tag.setInteger("epoch", epoch);
+        tag.setLong("from", since);
+        tag.setLong("sequence", sequence);
+        tag.setTag("changes", changeList);
+        return tag;
+    }
+
+    /**
+     * Creates a tag with every device of this router for a client, along with the sequence and
+     * epoch so the client can ask for only the changes afterwards.
+     */
+    public NBTTagCompound toSyncTag()
+    {
+        NBTTagCompound tag = toTag(true);
+        tag.setInteger("epoch", epoch);
+        tag.setLong("sequence", sequence);
+        return tag;
+    }
+
+    /**
+     * Applies changes sent by the server to the devices of this router on the client.
+     *
+     * @param tag the tag created by {@link #toDeltaTag(long)}
+     * @return false if the changes don't follow on from the devices the client has, in which
+     *         case every device has to be synced again
+     */
+    public boolean applyDeltaTag(NBTTagCompound tag)
+    {
+        if(!tag.getUniqueId("id").equals(routerId) || tag.getInteger("epoch") != epoch || tag.getLong("from") > sequence)
+            return false;
+        if(tag.getLong("sequence") <= sequence)
+            return true;
+
+        NBTTagList changeList = tag.getTagList("changes", Constants.NBT.TAG_COMPOUND);
+        for(int i = 0; i < changeList.tagCount(); i++)
+        {
+            NBTTagCompound changeTag = changeList.getCompoundTagAt(i);
+            UUID id = UUID.fromString(changeTag.getString("id"));
+            if(changeTag.getBoolean("removed"))
+            {
+                NETWORK_DEVICES.remove(id);
+                DEVICES_BY_TYPE.values().forEach(ids -> ids.remove(id));
+            }
+            else
+            {
+                NetworkDevice device = NetworkDevice.fromTag(changeTag);
+                NETWORK_DEVICES.put(id, device);
+                indexType(device);
+            }
+        }
+        sequence = tag.getLong("sequence");
+        return true;
     }
 
     public UUID getId()
@@ -178,6 +705,10 @@ public class Router
         });
         tag.setTag("network_devices", deviceList);
 
+        NBTTagList linkList = new NBTTagList();
+        CABLE_LINKS.forEach(id -> linkList.appendTag(new NBTTagString(id.toString())));
+        tag.setTag("cable_links", linkList);
+
         return tag;
     }
 
@@ -191,6 +722,19 @@ public class Router
         {
             NetworkDevice device = NetworkDevice.fromTag(deviceList.getCompoundTagAt(i));
             router.NETWORK_DEVICES.put(device.getId(), device);
+            router.indexType(device);
+        }
+
+        NBTTagList linkList = tag.getTagList("cable_links", Constants.NBT.TAG_STRING);
+        for(int i = 0; i < linkList.tagCount(); i++)
+        {
+            router.CABLE_LINKS.add(UUID.fromString(linkList.getStringTagAt(i)));
+        }
+
+        if(tag.hasKey("epoch", Constants.NBT.TAG_INT))
+        {
+            router.epoch = tag.getInteger("epoch");
+            router.sequence = tag.getLong("sequence");
         }
         return router;
     }
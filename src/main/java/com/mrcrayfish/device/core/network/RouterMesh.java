@@ -0,0 +1,194 @@
+package com.mrcrayfish.device.core.network;
+
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * The links between the loaded routers of a world. Routers are linked when they are in range of
+ * each other or connected with an ethernet cable, and messages are forwarded along the shortest
+ * path of links. The routes from a router are calculated the first time they are needed and
+ * cached until a link of a router they pass through changes.
+ *
+ * Author: MrCrayfish
+ */
+public class RouterMesh
+{
+    private static final Map<World, RouterMesh> MESHES = new WeakHashMap<>();
+
+    private final Map<UUID, Set<UUID>> links = new HashMap<>();
+    private final Map<UUID, Map<UUID, Route>> routes = new HashMap<>();
+
+    public static synchronized RouterMesh get(World world)
+    {
+        return MESHES.computeIfAbsent(world, w -> new RouterMesh());
+    }
+
+    public synchronized void link(UUID first, UUID second)
+    {
+        if(first.equals(second))
+            return;
+
+        boolean added = links.computeIfAbsent(first, id -> new HashSet<>()).add(second);
+        added |= links.computeIfAbsent(second, id -> new HashSet<>()).add(first);
+        if(added)
+        {
+            invalidate(first, second);
+        }
+    }
+
+    public synchronized void unlink(UUID first, UUID second)
+    {
+        boolean removed = removeLink(first, second);
+        removed |= removeLink(second, first);
+        if(removed)
+        {
+            invalidate(first, second);
+        }
+    }
+
+    /**
+     * Removes all links of a router, used when the router is unloaded or broken.
+     *
+     * @param id the id of the router
+     */
+    public synchronized void removeRouter(UUID id)
+    {
+        Set<UUID> neighbours = links.remove(id);
+        if(neighbours != null)
+        {
+            neighbours.forEach(neighbour -> removeLink(neighbour, id));
+            neighbours.forEach(neighbour -> invalidate(id, neighbour));
+        }
+        routes.remove(id);
+    }
+
+    public synchronized Set<UUID> getLinks(UUID id)
+    {
+        Set<UUID> neighbours = links.get(id);
+        return neighbours != null ? new HashSet<>(neighbours) : Collections.emptySet();
+    }
+
+    /**
+     * Gets the next router a message has to be sent to in order to reach the destination router.
+     *
+     * @param source the router the message is at
+     * @param destination the router the message has to reach
+     * @return the id of the next router or null if the destination can't be reached
+     */
+    @Nullable
+    public synchronized UUID getNextHop(UUID source, UUID destination)
+    {
+        Route route = getRoutes(source).get(destination);
+        return route != null ? route.nextHop : null;
+    }
+
+    /**
+     * Gets the amount of links between two routers.
+     *
+     * @return the amount of hops or -1 if the destination can't be reached
+     */
+    public synchronized int getHops(UUID source, UUID destination)
+    {
+        Route route = getRoutes(source).get(destination);
+        return route != null ? route.hops : -1;
+    }
+
+    /**
+     * Gets the routers that can be reached from a router, including the router itself, ordered by
+     * the amount of hops it takes to reach them.
+     *
+     * @param source the router
+     * @return the ids of the reachable routers
+     */
+    public synchronized Collection<UUID> getReachable(UUID source)
+    {
+        return Collections.unmodifiableCollection(getRoutes(source).keySet());
+    }
+
+    private Map<UUID, Route> getRoutes(UUID source)
+    {
+        Map<UUID, Route> table = routes.get(source);
+        if(table == null)
+        {
+            table = calculateRoutes(source);
+            routes.put(source, table);
+        }
+        return table;
+    }
+
+    /**
+     * Finds the shortest path to every reachable router with a breadth first search. As every
+     * link has the same cost, the first time a router is visited is the shortest path to it.
+     */
+    private Map<UUID, Route> calculateRoutes(UUID source)
+    {
+        Map<UUID, Route> table = new LinkedHashMap<>();
+        table.put(source, new Route(source, 0));
+
+        Deque<UUID> queue = new ArrayDeque<>();
+        queue.add(source);
+        while(!queue.isEmpty())
+        {
+            UUID current = queue.poll();
+            Route currentRoute = table.get(current);
+            for(UUID neighbour : links.getOrDefault(current, Collections.emptySet()))
+            {
+                if(table.containsKey(neighbour))
+                    continue;
+
+                UUID nextHop = current.equals(source) ? neighbour : currentRoute.nextHop;
+                table.put(neighbour, new Route(nextHop, currentRoute.hops + 1));
+                queue.add(neighbour);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Discards the cached routes that could be affected by a change to the link between two
+     * routers. Only routes from routers that could reach either of them are affected, the routes
+     * of every other network stay cached.
+     */
+    private void invalidate(UUID first, UUID second)
+    {
+        routes.entrySet().removeIf(entry -> entry.getValue().containsKey(first) || entry.getValue().containsKey(second));
+    }
+
+    private boolean removeLink(UUID from, UUID to)
+    {
+        Set<UUID> neighbours = links.get(from);
+        if(neighbours != null && neighbours.remove(to))
+        {
+            if(neighbours.isEmpty())
+            {
+                links.remove(from);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static class Route
+    {
+        private final UUID nextHop;
+        private final int hops;
+
+        private Route(UUID nextHop, int hops)
+        {
+            this.nextHop = nextHop;
+            this.hops = hops;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.mrcrayfish.device.core.network;
+
+import com.mrcrayfish.device.tileentity.TileEntityRouter;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.storage.MapStorage;
+import net.minecraft.world.storage.WorldSavedData;
+import net.minecraftforge.common.util.Constants;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps track of every router in a world by its id, including routers in unloaded chunks. Routers
+ * register themselves when they are loaded and placed and remove themselves when they are broken,
+ * so routers can be found by id without looking up their tile entity.
+ *
+ * Author: MrCrayfish
+ */
+public class RouterRegistry extends WorldSavedData
+{
+    public static final String NAME = "cdm_routers";
+
+    private static final Map<World, RouterRegistry> REGISTRIES = new WeakHashMap<>();
+
+    private final Map<UUID, Entry> routers = new HashMap<>();
+    private final Map<BlockPos, UUID> positions = new HashMap<>();
+
+    public RouterRegistry(String name)
+    {
+        super(name);
+    }
+
+    public static RouterRegistry get(World world)
+    {
+        synchronized(REGISTRIES)
+        {
+            return REGISTRIES.computeIfAbsent(world, w ->
+            {
+                MapStorage storage = w.getPerWorldStorage();
+                RouterRegistry registry = (RouterRegistry) storage.getOrLoadData(RouterRegistry.class, NAME);
+                if(registry == null)
+                {
+                    registry = new RouterRegistry(NAME);
+                    storage.setData(NAME, registry);
+                }
+                return registry;
+            });
+        }
+    }
+
+    public synchronized void onRouterLoaded(TileEntityRouter tileEntityRouter)
+    {
+        Router router = tileEntityRouter.getRouter();
+        Entry entry = routers.computeIfAbsent(router.getId(), Entry::new);
+        if(!tileEntityRouter.getPos().equals(entry.pos))
+        {
+            if(entry.pos != null)
+            {
+                positions.remove(entry.pos, entry.id);
+            }
+            entry.pos = tileEntityRouter.getPos();
+            positions.put(entry.pos, entry.id);
+        }
+        entry.name = tileEntityRouter.getCustomName();
+        entry.router = router;
+        markDirty();
+    }
+
+    public synchronized void onRouterUnloaded(TileEntityRouter tileEntityRouter)
+    {
+        Entry entry = routers.get(tileEntityRouter.getRouter().getId());
+        if(entry != null && entry.router != null)
+        {
+            entry.deviceCount = entry.router.getNetworkDevices().size();
+            entry.connectedCount = entry.router.getConnectedCount();
+            entry.router = null;
+            markDirty();
+        }
+    }
+
+    public synchronized void onRouterRemoved(TileEntityRouter tileEntityRouter)
+    {
+        Entry entry = routers.remove(tileEntityRouter.getRouter().getId());
+        if(entry != null)
+        {
+            positions.remove(entry.pos, entry.id);
+            markDirty();
+        }
+    }
+
+    /**
+     * Gets the router with the specified id if it is loaded.
+     *
+     * @param id the id of the router
+     * @return the router or null if it doesn't exist or is not loaded
+     */
+    @Nullable
+    public synchronized Router getRouter(UUID id)
+    {
+        Entry entry = routers.get(id);
+        return entry != null ? entry.router : null;
+    }
+
+    @Nullable
+    public synchronized Router getRouterAt(BlockPos pos)
+    {
+        UUID id = positions.get(pos);
+        return id != null ? getRouter(id) : null;
+    }
+
+    @Nullable
+    public synchronized Entry getEntry(UUID id)
+    {
+        return routers.get(id);
+    }
+
+    public synchronized List<Entry> getEntries()
+    {
+        return new ArrayList<>(routers.values());
+    }
+
+    @Override
+    public synchronized void readFromNBT(NBTTagCompound nbt)
+    {
+        routers.clear();
+        positions.clear();
+        NBTTagList routerList = nbt.getTagList("routers", Constants.NBT.TAG_COMPOUND);
+        for(int i = 0; i < routerList.tagCount(); i++)
+        {
+            NBTTagCompound routerTag = routerList.getCompoundTagAt(i);
+            Entry entry = new Entry(routerTag.getUniqueId("id"));
+            entry.pos = BlockPos.fromLong(routerTag.getLong("pos"));
+            entry.name = routerTag.getString("name");
+            entry.deviceCount = routerTag.getInteger("device_count");
+            entry.connectedCount = routerTag.getInteger("connected_count");
+            routers.put(entry.id, entry);
+            positions.put(entry.pos, entry.id);
+        }
+    }
+
+    @Override
+    public synchronized NBTTagCompound writeToNBT(NBTTagCompound compound)
+    {
+        NBTTagList routerList = new NBTTagList();
+        routers.values().forEach(entry ->
+        {
+            NBTTagCompound routerTag = new NBTTagCompound();
+            routerTag.setUniqueId("id", entry.id);
+            routerTag.setLong("pos", entry.pos.toLong());
+            routerTag.setString("name", entry.name);
+            routerTag.setInteger("device_count", entry.getDeviceCount());
+            routerTag.setInteger("connected_count", entry.getConnectedCount());
+            routerList.appendTag(routerTag);
+        });
+        compound.setTag("routers", routerList);
+        return compound;
+    }
+
+    public static class Entry
+    {
+        private final UUID id;
+        private BlockPos pos;
+        private String name = "Router";
+        private int deviceCount;
+        private int connectedCount;
+
+        /* Only set while the router is loaded */
+        private Router router;
+
+        private Entry(UUID id)
+        {
+            this.id = id;
+        }
+
+        public UUID getId()
+        {
+            return id;
+        }
+
+        public BlockPos getPos()
+        {
+            return pos;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public int getDeviceCount()
+        {
+            return router != null ? router.getNetworkDevices().size() : deviceCount;
+        }
+
+        public int getConnectedCount()
+        {
+            return router != null ? router.getConnectedCount() : connectedCount;
+        }
+
+        public boolean isLoaded()
+        {
+            return router != null;
+        }
+    }
+}
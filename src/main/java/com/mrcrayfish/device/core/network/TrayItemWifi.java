@@ -10,25 +10,34 @@ import com.mrcrayfish.device.api.utils.RenderUtil;
 import com.mrcrayfish.device.core.Device;
 import com.mrcrayfish.device.core.Laptop;
 import com.mrcrayfish.device.core.network.task.TaskConnect;
+import com.mrcrayfish.device.core.network.task.TaskGetRouters;
 import com.mrcrayfish.device.core.network.task.TaskPing;
 import com.mrcrayfish.device.object.TrayItem;
-import com.mrcrayfish.device.tileentity.TileEntityDevice;
-import com.mrcrayfish.device.tileentity.TileEntityRouter;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.Gui;
-import net.minecraft.tileentity.TileEntity;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
+import net.minecraftforge.common.util.Constants;
 
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Author: MrCrayfish
  */
 public class TrayItemWifi extends TrayItem
 {
+    /* How long the routers found around a laptop are reused before asking the server again */
+    private static final long ROUTER_CACHE_TIME = 5000;
+
+    private static List<NearbyRouter> cachedRouters;
+    private static BlockPos cachedPos;
+    private static long cachedTime;
+
     private int pingTimer;
 
     public TrayItemWifi()
@@ -104,42 +113,31 @@ public class TrayItemWifi extends TrayItem
             Gui.drawRect(x, y, x + width, y + height, new Color(0.65F, 0.65F, 0.65F, 0.9F).getRGB());
         });
 
-        ItemList<Device> itemListRouters = new ItemList<>(5, 5, 90, 4);
-        itemListRouters.setItems(getRouters());
-        itemListRouters.setListItemRenderer(new ListItemRenderer<Device>(16)
+        ItemList<NearbyRouter> itemListRouters = new ItemList<>(5, 5, 90, 4);
+        itemListRouters.setListItemRenderer(new ListItemRenderer<NearbyRouter>(16)
         {
             @Override
-            public void render(Device device, Gui gui, Minecraft mc, int x, int y, int width, int height, boolean selected)
+            public void render(NearbyRouter router, Gui gui, Minecraft mc, int x, int y, int width, int height, boolean selected)
             {
                 Gui.drawRect(x, y, x + width, y + height, selected ? Color.DARK_GRAY.getRGB() : Color.GRAY.getRGB());
-                RenderUtil.drawStringClipped(device.getName(), x + 16, y + 4, 70, Color.WHITE.getRGB(), false);
-
-                if(device.getPos() == null)
-                    return;
+                RenderUtil.drawStringClipped(router.getName(), x + 16, y + 4, 70, Color.WHITE.getRGB(), false);
 
-                BlockPos laptopPos = Laptop.getPos();
-                double distance = Math.sqrt(device.getPos().distanceSqToCenter(laptopPos.getX() + 0.5, laptopPos.getY() + 0.5, laptopPos.getZ() + 0.5));
-                if(distance > 20)
-                {
-                    Icons.WIFI_LOW.draw(mc, x + 3, y + 3);
-                }
-                else if(distance > 10)
+                switch(router.getStrength())
                 {
-                    Icons.WIFI_MED.draw(mc, x + 3, y + 3);
-                }
-                else
-                {
-                    Icons.WIFI_HIGH.draw(mc, x + 3, y + 3);
+                    case 2:
+                        Icons.WIFI_LOW.draw(mc, x + 3, y + 3);
+                        break;
+                    case 1:
+                        Icons.WIFI_MED.draw(mc, x + 3, y + 3);
+                        break;
+                    default:
+                        Icons.WIFI_HIGH.draw(mc, x + 3, y + 3);
+                        break;
                 }
             }
         });
-        itemListRouters.sortBy((o1, o2) -> {
-            BlockPos laptopPos = Laptop.getPos();
-            double distance1 = Math.sqrt(o1.getPos().distanceSqToCenter(laptopPos.getX() + 0.5, laptopPos.getY() + 0.5, laptopPos.getZ() + 0.5));
-            double distance2 = Math.sqrt(o2.getPos().distanceSqToCenter(laptopPos.getX() + 0.5, laptopPos.getY() + 0.5, laptopPos.getZ() + 0.5));
-            return distance1 == distance2 ? 0 : distance1 > distance2 ? 1 : -1;
-        });
         layout.addComponent(itemListRouters);
+        getRouters(itemListRouters::setItems);
 
         com.mrcrayfish.device.api.app.component.Button buttonConnect = new com.mrcrayfish.device.api.app.component.Button(79, 79, Icons.CHECK);
         buttonConnect.setClickListener((mouseX, mouseY, mouseButton) ->
@@ -148,7 +146,7 @@ public class TrayItemWifi extends TrayItem
             {
                 if(itemListRouters.getSelectedItem() != null)
                 {
-                    TaskConnect connect = new TaskConnect(Laptop.getPos(), itemListRouters.getSelectedItem().getPos());
+                    TaskConnect connect = new TaskConnect(Laptop.getPos(), itemListRouters.getSelectedItem().getId());
                     connect.setCallback((tagCompound, success) ->
                     {
                         if(success)
@@ -166,29 +164,62 @@ public class TrayItemWifi extends TrayItem
         return layout;
     }
 
-    private static List<Device> getRouters()
+    /**
+     * Gets the routers in range of the laptop from the server, sorted from the strongest to the
+     * weakest signal. The result is reused for a few seconds so opening the menu repeatedly
+     * doesn't send a request every time.
+     *
+     * @param callback called with the routers once they are known
+     */
+    private static void getRouters(Consumer<List<NearbyRouter>> callback)
     {
-        List<Device> routers = new ArrayList<>();
-
-        World world = Minecraft.getMinecraft().world;
         BlockPos laptopPos = Laptop.getPos();
-        int range = DeviceConfig.getSignalRange();
+        if(cachedRouters != null && laptopPos.equals(cachedPos) && System.currentTimeMillis() - cachedTime < ROUTER_CACHE_TIME)
+        {
+            callback.accept(cachedRouters);
+            return;
+        }
 
-        for(int y = -range; y < range + 1; y++)
+        TaskGetRouters task = new TaskGetRouters(laptopPos);
+        task.setCallback((tagCompound, success) ->
         {
-            for(int z = -range; z < range + 1; z++)
+            if(success)
             {
-                for(int x = -range; x < range + 1; x++)
+                List<NearbyRouter> routers = new ArrayList<>();
+                NBTTagList routerList = tagCompound.getTagList("routers", Constants.NBT.TAG_COMPOUND);
+                for(int i = 0; i < routerList.tagCount(); i++)
                 {
-                    BlockPos pos = new BlockPos(laptopPos.getX() + x, laptopPos.getY() + y, laptopPos.getZ() + z);
-                    TileEntity tileEntity = world.getTileEntity(pos);
-                    if(tileEntity instanceof TileEntityRouter)
-                    {
-                        routers.add(new Device((TileEntityDevice) tileEntity));
-                    }
+                    routers.add(NearbyRouter.fromTag(routerList.getCompoundTagAt(i)));
                 }
+                cachedRouters = routers;
+                cachedPos = laptopPos;
+                cachedTime = System.currentTimeMillis();
+                callback.accept(routers);
             }
+        });
+        TaskManager.sendTask(task);
+    }
+
+    private static class NearbyRouter extends Device
+    {
+        private int strength;
+
+        private NearbyRouter(UUID id, String name)
+        {
+            super(id, name);
+        }
+
+        public int getStrength()
+        {
+            return strength;
+        }
+
+        private static NearbyRouter fromTag(NBTTagCompound tag)
+        {
+            NearbyRouter router = new NearbyRouter(UUID.fromString(tag.getString("id")), tag.getString("name"));
+            router.setPos(BlockPos.fromLong(tag.getLong("pos")));
+            router.strength = tag.getInteger("strength");
+            return router;
         }
-        return routers;
     }
 }
@@ -1,14 +1,18 @@
 package com.mrcrayfish.device.core.network.task;
 
 import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.network.NetworkLookup;
 import com.mrcrayfish.device.core.network.Router;
+import com.mrcrayfish.device.core.network.RouterRegistry;
 import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
-import com.mrcrayfish.device.tileentity.TileEntityRouter;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.minecraftforge.common.util.Constants;
+
+import java.util.UUID;
 
 /**
  * Author: MrCrayfish
@@ -17,6 +21,7 @@ public class TaskConnect extends Task
 {
     private BlockPos devicePos;
     private BlockPos routerPos;
+    private UUID routerId;
 
     public TaskConnect()
     {
@@ -30,26 +35,46 @@ public class TaskConnect extends Task
         this.routerPos = routerPos;
     }
 
+    public TaskConnect(BlockPos devicePos, UUID routerId)
+    {
+        this();
+        this.devicePos = devicePos;
+        this.routerId = routerId;
+    }
+
     @Override
     public void prepareRequest(NBTTagCompound nbt)
     {
         nbt.setLong("devicePos", devicePos.toLong());
-        nbt.setLong("routerPos", routerPos.toLong());
+        if(routerId != null)
+        {
+            nbt.setString("routerId", routerId.toString());
+        }
+        else
+        {
+            nbt.setLong("routerPos", routerPos.toLong());
+        }
     }
 
     @Override
     public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
     {
-        TileEntity tileEntity = world.getTileEntity(BlockPos.fromLong(nbt.getLong("routerPos")));
-        if(tileEntity instanceof TileEntityRouter)
+        RouterRegistry registry = RouterRegistry.get(world);
+        Router router;
+        if(nbt.hasKey("routerId", Constants.NBT.TAG_STRING))
         {
-            TileEntityRouter tileEntityRouter = (TileEntityRouter) tileEntity;
-            Router router = tileEntityRouter.getRouter();
-
-            TileEntity tileEntity1 = world.getTileEntity(BlockPos.fromLong(nbt.getLong("devicePos")));
-            if(tileEntity1 instanceof TileEntityNetworkDevice)
+            router = registry.getRouter(UUID.fromString(nbt.getString("routerId")));
+        }
+        else
+        {
+            router = registry.getRouterAt(BlockPos.fromLong(nbt.getLong("routerPos")));
+        }
+        if(router != null)
+        {
+            TileEntity tileEntity = NetworkLookup.getTileEntity(world, BlockPos.fromLong(nbt.getLong("devicePos")));
+            if(tileEntity instanceof TileEntityNetworkDevice)
             {
-                TileEntityNetworkDevice tileEntityNetworkDevice = (TileEntityNetworkDevice) tileEntity1;
+                TileEntityNetworkDevice tileEntityNetworkDevice = (TileEntityNetworkDevice) tileEntity;
                 if(router.addDevice(tileEntityNetworkDevice))
                 {
                     tileEntityNetworkDevice.connect(router);
@@ -1,19 +1,31 @@
 package com.mrcrayfish.device.core.network.task;
 
 import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.network.DeviceTypes;
 import com.mrcrayfish.device.core.network.NetworkDevice;
+import com.mrcrayfish.device.core.network.NetworkLookup;
 import com.mrcrayfish.device.core.network.Router;
+import com.mrcrayfish.device.core.network.RouterMesh;
+import com.mrcrayfish.device.core.network.RouterRegistry;
 import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagString;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.minecraftforge.common.util.Constants;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 /**
+ * Gets the connected devices of every router that can be reached from the router of a device,
+ * so devices on linked routers can be used as if they were on the same router.
+ *
  * Author: MrCrayfish
  */
 public class TaskGetDevices extends Task
@@ -47,7 +59,9 @@ public class TaskGetDevices extends Task
         nbt.setLong("devicePos", devicePos.toLong());
         if(targetDeviceClass != null)
         {
-            nbt.setString("targetClass", targetDeviceClass.getName());
+            NBTTagList typeList = new NBTTagList();
+            DeviceTypes.getAssignableIds(targetDeviceClass).forEach(id -> typeList.appendTag(new NBTTagString(id)));
+            nbt.setTag("targetTypes", typeList);
         }
     }
 
@@ -55,21 +69,18 @@ public class TaskGetDevices extends Task
     public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
     {
         BlockPos devicePos = BlockPos.fromLong(nbt.getLong("devicePos"));
-        Class targetDeviceClass = null;
-        try
+        List<String> targetTypes = null;
+        if(nbt.hasKey("targetTypes", Constants.NBT.TAG_LIST))
         {
-            Class targetClass = Class.forName(nbt.getString("targetClass"));
-            if(TileEntityNetworkDevice.class.isAssignableFrom(targetClass))
+            targetTypes = new ArrayList<>();
+            NBTTagList typeList = nbt.getTagList("targetTypes", Constants.NBT.TAG_STRING);
+            for(int i = 0; i < typeList.tagCount(); i++)
             {
-                targetDeviceClass = targetClass;
+                targetTypes.add(typeList.getStringTagAt(i));
             }
         }
-        catch(ClassNotFoundException e)
-        {
-            e.printStackTrace();
-        }
 
-        TileEntity tileEntity = world.getTileEntity(devicePos);
+        TileEntity tileEntity = NetworkLookup.getTileEntity(world, devicePos);
         if(tileEntity instanceof TileEntityNetworkDevice)
         {
             TileEntityNetworkDevice tileEntityNetworkDevice = (TileEntityNetworkDevice) tileEntity;
@@ -78,13 +89,22 @@ public class TaskGetDevices extends Task
                 Router router = tileEntityNetworkDevice.getRouter();
                 if(router != null)
                 {
-                    if(targetDeviceClass != null)
+                    foundDevices = new ArrayList<>();
+                    RouterRegistry registry = RouterRegistry.get(world);
+                    for(UUID routerId : RouterMesh.get(world).getReachable(router.getId()))
                     {
-                        foundDevices = router.getConnectedDevices(world, targetDeviceClass);
-                    }
-                    else
-                    {
-                        foundDevices = router.getConnectedDevices(world);
+                        Router reachable = registry.getRouter(routerId);
+                        if(reachable == null)
+                            continue;
+
+                        if(targetTypes != null)
+                        {
+                            foundDevices.addAll(reachable.getConnectedDevices(targetTypes));
+                        }
+                        else
+                        {
+                            foundDevices.addAll(reachable.getConnectedDevices(world));
+                        }
                     }
                     this.setSuccessful();
                 }
@@ -0,0 +1,85 @@
+package com.mrcrayfish.device.core.network.task;
+
+import com.mrcrayfish.device.DeviceConfig;
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.network.DeviceIndex;
+import com.mrcrayfish.device.tileentity.TileEntityRouter;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds the routers in range of a device using the server side device index, sorted from the
+ * strongest to the weakest signal.
+ *
+ * Author: MrCrayfish
+ */
+public class TaskGetRouters extends Task
+{
+    private BlockPos devicePos;
+
+    private List<TileEntityRouter> foundRouters;
+
+    private TaskGetRouters()
+    {
+        super("get_routers");
+    }
+
+    public TaskGetRouters(BlockPos devicePos)
+    {
+        this();
+        this.devicePos = devicePos;
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        nbt.setLong("devicePos", devicePos.toLong());
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        devicePos = BlockPos.fromLong(nbt.getLong("devicePos"));
+        foundRouters = DeviceIndex.get(world).getRoutersInRange(devicePos, DeviceConfig.getSignalRange());
+        foundRouters.sort(Comparator.comparingDouble(router -> router.getPos().distanceSq(devicePos)));
+        this.setSuccessful();
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+        if(this.isSucessful())
+        {
+            NBTTagList routerList = new NBTTagList();
+            foundRouters.forEach(tileEntityRouter ->
+            {
+                NBTTagCompound routerTag = new NBTTagCompound();
+                routerTag.setString("id", tileEntityRouter.getRouter().getId().toString());
+                routerTag.setString("name", tileEntityRouter.getCustomName());
+                routerTag.setLong("pos", tileEntityRouter.getPos().toLong());
+                routerTag.setInteger("strength", getSignalStrength(tileEntityRouter.getPos()));
+                routerList.appendTag(routerTag);
+            });
+            nbt.setTag("routers", routerList);
+        }
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+
+    private int getSignalStrength(BlockPos routerPos)
+    {
+        double distance = Math.sqrt(devicePos.distanceSqToCenter(routerPos.getX() + 0.5, routerPos.getY() + 0.5, routerPos.getZ() + 0.5));
+        double level = DeviceConfig.getSignalRange() / 3.0;
+        return distance > level * 2 ? 2 : distance > level ? 1 : 0;
+    }
+}
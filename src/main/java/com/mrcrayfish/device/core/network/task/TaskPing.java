@@ -1,20 +1,48 @@
 package com.mrcrayfish.device.core.network.task;
 
+import com.mrcrayfish.device.DeviceConfig;
+import com.mrcrayfish.device.api.task.Callback;
 import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.api.task.TaskManager;
+import com.mrcrayfish.device.core.network.NetworkLookup;
+import com.mrcrayfish.device.core.network.Router;
+import com.mrcrayfish.device.core.network.RouterMesh;
+import com.mrcrayfish.device.core.network.RouterRegistry;
 import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
+import javax.annotation.Nullable;
+import java.util.UUID;
+
 /**
+ * Gets the signal strength of a device. If a target device is specified, the amount of router
+ * hops between the two devices is included as well, or -1 if the target can't be reached.
+ *
+ * The response also includes two times in milliseconds. "taskRoundTrip" is the measured time
+ * the task took to get to the server and back. "estimatedRoundTrip" adds an estimate of the
+ * time a message sent now would spend in the queues of the routers on the way to the target,
+ * so a congested network shows up as a slow ping. No message is actually sent through the
+ * routers, so the second value is only an estimate. Use
+ * {@link #sendBurst(BlockPos, UUID, int, Callback)} for the min, average and max of multiple
+ * pings.
+ *
  * Author: MrCrayfish
  */
 public class TaskPing extends Task
 {
     private BlockPos sourceDevicePos;
+    private UUID targetDeviceId;
     private int strength;
+    private int hops = -1;
+    private float pathDelay;
+
+    /* The time the request was written, only known on the client that sent it */
+    private long sentTime;
 
     private TaskPing()
     {
@@ -27,22 +55,50 @@ public class TaskPing extends Task
         this.sourceDevicePos = sourceDevicePos;
     }
 
+    public TaskPing(BlockPos sourceDevicePos, UUID targetDeviceId)
+    {
+        this(sourceDevicePos);
+        this.targetDeviceId = targetDeviceId;
+    }
+
     @Override
     public void prepareRequest(NBTTagCompound nbt)
     {
+        sentTime = System.nanoTime();
         nbt.setLong("sourceDevicePos", sourceDevicePos.toLong());
+        if(targetDeviceId != null)
+        {
+            nbt.setUniqueId("targetDeviceId", targetDeviceId);
+        }
     }
 
     @Override
     public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
     {
-        TileEntity tileEntity = world.getTileEntity(BlockPos.fromLong(nbt.getLong("sourceDevicePos")));
+        this.hops = -1;
+        this.pathDelay = 0;
+
+        TileEntity tileEntity = NetworkLookup.getTileEntity(world, BlockPos.fromLong(nbt.getLong("sourceDevicePos")));
         if(tileEntity instanceof TileEntityNetworkDevice)
         {
             TileEntityNetworkDevice tileEntityNetworkDevice = (TileEntityNetworkDevice) tileEntity;
-            if(tileEntityNetworkDevice.isConnected())
+            if(tileEntityNetworkDevice.isConnected() && tileEntityNetworkDevice.getRouter() != null)
             {
                 this.strength = tileEntityNetworkDevice.getSignalStrength();
+                Router router = tileEntityNetworkDevice.getRouter();
+                UUID targetRouterId = router.getId();
+                if(nbt.hasUniqueId("targetDeviceId"))
+                {
+                    targetRouterId = router.findRouterWithDevice(world, nbt.getUniqueId("targetDeviceId"));
+                    if(targetRouterId != null)
+                    {
+                        this.hops = RouterMesh.get(world).getHops(router.getId(), targetRouterId);
+                    }
+                }
+                if(targetRouterId != null)
+                {
+                    this.pathDelay = getPathDelay(world, router, targetRouterId);
+                }
                 this.setSuccessful();
             }
         }
@@ -54,12 +110,120 @@ public class TaskPing extends Task
         if(this.isSucessful())
         {
             nbt.setInteger("strength", strength);
+            nbt.setInteger("hops", hops);
+            nbt.setFloat("pathDelay", pathDelay);
         }
     }
 
     @Override
     public void processResponse(NBTTagCompound nbt)
     {
+        float taskRoundTrip = (System.nanoTime() - sentTime) / 1000000F;
+        nbt.setFloat("taskRoundTrip", taskRoundTrip);
+        nbt.setFloat("estimatedRoundTrip", taskRoundTrip + nbt.getFloat("pathDelay"));
+    }
+
+    /**
+     * Estimates the time in milliseconds a message sent now would take to pass through the routers
+     * from the source router to the target router. Each router adds its latency and the time it
+     * needs to deliver the messages already in its queue, and the ticks are as long as the
+     * server is currently taking to run them.
+     */
+    private static float getPathDelay(World world, Router source, UUID targetRouterId)
+    {
+        RouterMesh mesh = RouterMesh.get(world);
+        RouterRegistry registry = RouterRegistry.get(world);
+        int maxHops = Math.max(mesh.getHops(source.getId(), targetRouterId), 0);
+
+        int ticks = 0;
+        Router router = source;
+        for(int i = 0; router != null && i <= maxHops; i++)
+        {
+            ticks += DeviceConfig.getLatency() + router.getQueuedBytes() / DeviceConfig.getBandwidth();
+            if(router.getId().equals(targetRouterId))
+                break;
+            UUID nextHop = mesh.getNextHop(router.getId(), targetRouterId);
+            router = nextHop != null ? registry.getRouter(nextHop) : null;
+        }
+        return ticks * getTickTime(world);
+    }
+
+    private static float getTickTime(World world)
+    {
+        MinecraftServer server = world.getMinecraftServer();
+        if(server == null)
+            return 50F;
+
+        long total = 0;
+        for(long time : server.tickTimeArray)
+        {
+            total += time;
+        }
+        return Math.max(50F, total / (float) server.tickTimeArray.length / 1000000F);
+    }
+
+    /**
+     * Sends multiple pings at once and reports the min, average and max estimated round trip
+     * time once all of them have returned. The callback receives the response of the last successful ping
+     * with "min", "avg" and "max" added, along with the amount of pings "sent" and "received".
+     *
+     * @param sourceDevicePos the position of the device to ping from
+     * @param targetDeviceId the device to ping or null to only ping the router of the device
+     * @param count the amount of pings to send
+     * @param callback the callback
+     */
+    public static void sendBurst(BlockPos sourceDevicePos, @Nullable UUID targetDeviceId, int count, Callback<NBTTagCompound> callback)
+    {
+        Burst burst = new Burst(count, callback);
+        for(int i = 0; i < count; i++)
+        {
+            TaskPing task = new TaskPing(sourceDevicePos);
+            task.targetDeviceId = targetDeviceId;
+            task.setCallback(burst::onResponse);
+            TaskManager.sendTask(task);
+        }
+    }
+
+    private static class Burst
+    {
+        private final int count;
+        private final Callback<NBTTagCompound> callback;
+        private int remaining;
+        private int received;
+        private float min = Float.MAX_VALUE;
+        private float max;
+        private float total;
+        private NBTTagCompound lastResponse;
 
+        private Burst(int count, Callback<NBTTagCompound> callback)
+        {
+            this.count = count;
+            this.remaining = count;
+            this.callback = callback;
+        }
+
+        private synchronized void onResponse(NBTTagCompound nbt, boolean success)
+        {
+            if(success)
+            {
+                float roundTrip = nbt.getFloat("estimatedRoundTrip");
+                min = Math.min(min, roundTrip);
+                max = Math.max(max, roundTrip);
+                total += roundTrip;
+                received++;
+                lastResponse = nbt;
+            }
+
+            if(--remaining == 0)
+            {
+                NBTTagCompound result = lastResponse != null ? lastResponse.copy() : new NBTTagCompound();
+                result.setFloat("min", received > 0 ? min : 0F);
+                result.setFloat("avg", received > 0 ? total / received : 0F);
+                result.setFloat("max", max);
+                result.setInteger("sent", count);
+                result.setInteger("received", received);
+                callback.execute(result, received > 0);
+            }
+        }
     }
 }
@@ -0,0 +1,76 @@
+package com.mrcrayfish.device.core.network.task;
+
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.network.NetworkLookup;
+import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.UUID;
+
+/**
+ * Sends a message from a device to another device on the same network. The task is successful
+ * once the router has queued the message, the message itself is delivered later depending on the
+ * bandwidth and latency of the router.
+ *
+ * Author: MrCrayfish
+ */
+public class TaskSendMessage extends Task
+{
+    private BlockPos devicePos;
+    private UUID destination;
+    private String channel;
+    private NBTTagCompound payload;
+
+    private TaskSendMessage()
+    {
+        super("send_message");
+    }
+
+    public TaskSendMessage(BlockPos devicePos, UUID destination, String channel, NBTTagCompound payload)
+    {
+        this();
+        this.devicePos = devicePos;
+        this.destination = destination;
+        this.channel = channel;
+        this.payload = payload;
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        nbt.setLong("devicePos", devicePos.toLong());
+        nbt.setUniqueId("destination", destination);
+        nbt.setString("channel", channel);
+        nbt.setTag("payload", payload);
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        TileEntity tileEntity = NetworkLookup.getTileEntity(world, BlockPos.fromLong(nbt.getLong("devicePos")));
+        if(tileEntity instanceof TileEntityNetworkDevice)
+        {
+            TileEntityNetworkDevice device = (TileEntityNetworkDevice) tileEntity;
+            if(device.sendMessage(nbt.getUniqueId("destination"), nbt.getString("channel"), nbt.getCompoundTag("payload")))
+            {
+                this.setSuccessful();
+            }
+        }
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+}
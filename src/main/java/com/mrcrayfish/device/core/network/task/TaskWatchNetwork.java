@@ -0,0 +1,62 @@
+package com.mrcrayfish.device.core.network.task;
+
+import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.network.NetworkDiagnostics;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+
+/**
+ * Starts or stops receiving the network statistics of the server. Only operators are allowed to
+ * watch the statistics.
+ *
+ * Author: MrCrayfish
+ */
+public class TaskWatchNetwork extends Task
+{
+    private boolean watch;
+
+    private TaskWatchNetwork()
+    {
+        super("watch_network");
+    }
+
+    public TaskWatchNetwork(boolean watch)
+    {
+        this();
+        this.watch = watch;
+    }
+
+    @Override
+    public void prepareRequest(NBTTagCompound nbt)
+    {
+        nbt.setBoolean("watch", watch);
+    }
+
+    @Override
+    public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
+    {
+        if(!nbt.getBoolean("watch"))
+        {
+            NetworkDiagnostics.INSTANCE.unwatch(player);
+            this.setSuccessful();
+        }
+        else if(player.canUseCommand(2, ""))
+        {
+            NetworkDiagnostics.INSTANCE.watch(player);
+            this.setSuccessful();
+        }
+    }
+
+    @Override
+    public void prepareResponse(NBTTagCompound nbt)
+    {
+
+    }
+
+    @Override
+    public void processResponse(NBTTagCompound nbt)
+    {
+
+    }
+}
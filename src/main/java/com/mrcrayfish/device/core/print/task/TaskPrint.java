@@ -2,7 +2,9 @@ package com.mrcrayfish.device.core.print.task;
 
 import com.mrcrayfish.device.api.print.IPrint;
 import com.mrcrayfish.device.api.task.Task;
+import com.mrcrayfish.device.core.network.DeviceTypes;
 import com.mrcrayfish.device.core.network.NetworkDevice;
+import com.mrcrayfish.device.core.network.NetworkLookup;
 import com.mrcrayfish.device.core.network.Router;
 import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
 import com.mrcrayfish.device.tileentity.TileEntityPrinter;
@@ -47,20 +49,26 @@ public class TaskPrint extends Task
     @Override
     public void processRequest(NBTTagCompound nbt, World world, EntityPlayer player)
     {
-        TileEntity tileEntity = world.getTileEntity(BlockPos.fromLong(nbt.getLong("devicePos")));
+        NBTTagCompound printTag = nbt.getCompoundTag("print");
+        if(IPrint.loadFromTag(printTag) == null)
+            return;
+
+        TileEntity tileEntity = NetworkLookup.getTileEntity(world, BlockPos.fromLong(nbt.getLong("devicePos")));
         if(tileEntity instanceof TileEntityNetworkDevice)
         {
             TileEntityNetworkDevice device = (TileEntityNetworkDevice) tileEntity;
             Router router = device.getRouter();
-            if(router != null)
+            UUID printerId = nbt.getUniqueId("printerId");
+
+            /* Only send the print if the destination is actually a printer */
+            if(router == null || !router.isDeviceOfType(world, printerId, DeviceTypes.getAssignableIds(TileEntityPrinter.class)))
+                return;
+
+            NBTTagCompound payload = new NBTTagCompound();
+            payload.setTag("print", printTag);
+            if(device.sendMessage(printerId, TileEntityPrinter.CHANNEL_PRINT, payload))
             {
-                TileEntityNetworkDevice printer = router.getDevice(world, nbt.getUniqueId("printerId"));
-                if(printer != null && printer instanceof TileEntityPrinter)
-                {
-                    IPrint print = IPrint.loadFromTag(nbt.getCompoundTag("print"));
-                    ((TileEntityPrinter) printer).addToQueue(print);
-                    this.setSuccessful();
-                }
+                this.setSuccessful();
             }
         }
     }
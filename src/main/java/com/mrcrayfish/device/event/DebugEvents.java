@@ -0,0 +1,56 @@
+package com.mrcrayfish.device.event;
+
+import com.mrcrayfish.device.core.io.FileCache;
+import com.mrcrayfish.device.core.network.NetworkLookup;
+import com.mrcrayfish.device.tileentity.TileEntitySync;
+import net.minecraft.client.Minecraft;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.RayTraceResult;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.List;
+
+/**
+ * Adds the device mod statistics to the debug overlay (F3)
+ *
+ * Author: MrCrayfish
+ */
+@SideOnly(Side.CLIENT)
+public class DebugEvents
+{
+    @SubscribeEvent
+    public void onRenderDebugText(RenderGameOverlayEvent.Text event)
+    {
+        Minecraft mc = Minecraft.getMinecraft();
+        if(!mc.gameSettings.showDebugInfo)
+            return;
+
+        List<String> left = event.getLeft();
+        left.add("");
+        left.add(TextFormatting.RED + "[Device Mod]");
+
+        FileCache cache = FileCache.INSTANCE;
+        left.add(String.format("File Cache: %d entries, %d/%d KB, %.1f%% hits (%d/%d)", cache.getEntryCount(), cache.getResidentSize() / 1024, cache.getBudget() / 1024, cache.getHitRatio() * 100F, cache.getHits(), cache.getHits() + cache.getMisses()));
+
+        /* The network runs on the server, so this is only known when playing on the integrated server */
+        if(mc.isIntegratedServerRunning())
+        {
+            left.add(String.format("Network: %d chunk loads avoided", NetworkLookup.getAvoidedLoads()));
+        }
+
+        RayTraceResult result = mc.objectMouseOver;
+        if(result != null && result.typeOfHit == RayTraceResult.Type.BLOCK && mc.world != null)
+        {
+            TileEntity tileEntity = mc.world.getTileEntity(result.getBlockPos());
+            if(tileEntity instanceof TileEntitySync)
+            {
+                left.add(String.format("Sync: %d B/s", ((TileEntitySync) tileEntity).getSyncBytesPerSecond()));
+            }
+
+        }
+    }
+}
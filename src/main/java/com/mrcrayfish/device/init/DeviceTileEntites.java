@@ -1,5 +1,6 @@
 package com.mrcrayfish.device.init;
 
+import com.mrcrayfish.device.core.network.DeviceTypes;
 import com.mrcrayfish.device.tileentity.*;
 import net.minecraftforge.fml.common.registry.GameRegistry;
 
@@ -12,5 +13,8 @@ public class DeviceTileEntites
 		GameRegistry.registerTileEntity(TileEntityPrinter.class, "cdm:printer");
 		GameRegistry.registerTileEntity(TileEntityPaper.class, "cdm:printed_paper");
 		GameRegistry.registerTileEntity(TileEntityOfficeChair.class, "cdm:office_chair");
+
+		DeviceTypes.register("cdm:laptop", TileEntityLaptop.class);
+		DeviceTypes.register("cdm:printer", TileEntityPrinter.class);
 	}
 }
@@ -2,7 +2,9 @@ package com.mrcrayfish.device.item;
 
 import com.mrcrayfish.device.DeviceConfig;
 import com.mrcrayfish.device.MrCrayfishDeviceMod;
+import com.mrcrayfish.device.core.network.NetworkLookup;
 import com.mrcrayfish.device.core.network.Router;
+import com.mrcrayfish.device.core.network.RouterRegistry;
 import com.mrcrayfish.device.tileentity.TileEntityNetworkDevice;
 import com.mrcrayfish.device.tileentity.TileEntityRouter;
 import net.minecraft.client.gui.GuiScreen;
@@ -52,19 +54,55 @@ public class ItemEthernetCable extends Item
 
             if(tileEntity instanceof TileEntityRouter)
             {
+                TileEntityRouter tileEntityRouter = (TileEntityRouter) tileEntity;
+                Router router = tileEntityRouter.getRouter();
+
                 if(!heldItem.hasTagCompound())
                 {
-                    sendGameInfoMessage(player, "message.invalid_cable");
+                    heldItem.setTagCompound(new NBTTagCompound());
+                    NBTTagCompound tag = heldItem.getTagCompound();
+                    tag.setUniqueId("id", router.getId());
+                    tag.setString("name", tileEntityRouter.getCustomName());
+                    tag.setLong("pos", tileEntityRouter.getPos().toLong());
+                    tag.setBoolean("router", true);
+
+                    sendGameInfoMessage(player, "message.select_second_router");
                     return EnumActionResult.SUCCESS;
                 }
 
-                TileEntityRouter tileEntityRouter = (TileEntityRouter) tileEntity;
-                Router router = tileEntityRouter.getRouter();
-
                 NBTTagCompound tag = heldItem.getTagCompound();
+                if(tag.getBoolean("router"))
+                {
+                    Router other = RouterRegistry.get(world).getRouter(tag.getUniqueId("id"));
+                    if(other == null)
+                    {
+                        sendGameInfoMessage(player, "message.router_unavailable");
+                    }
+                    else if(other == router)
+                    {
+                        sendGameInfoMessage(player, "message.router_link_self");
+                    }
+                    else if(router.addCableLink(world, other))
+                    {
+                        tileEntityRouter.markDirty();
+                        TileEntity otherTileEntity = NetworkLookup.getTileEntity(world, other.getPos());
+                        if(otherTileEntity != null)
+                        {
+                            otherTileEntity.markDirty();
+                        }
+                        heldItem.shrink(1);
+                        sendGameInfoMessage(player, "message.successful_router_link");
+                    }
+                    else
+                    {
+                        sendGameInfoMessage(player, "message.routers_already_linked");
+                    }
+                    return EnumActionResult.SUCCESS;
+                }
+
                 BlockPos devicePos = BlockPos.fromLong(tag.getLong("pos"));
 
-                TileEntity tileEntity1 = world.getTileEntity(devicePos);
+                TileEntity tileEntity1 = NetworkLookup.getTileEntity(world, devicePos);
                 if(tileEntity1 instanceof TileEntityNetworkDevice)
                 {
                     TileEntityNetworkDevice tileEntityNetworkDevice = (TileEntityNetworkDevice) tileEntity1;
@@ -158,7 +196,7 @@ public class ItemEthernetCable extends Item
             if(tag != null)
             {
                 tooltip.add(TextFormatting.RED.toString() + TextFormatting.BOLD.toString() + "ID: " + TextFormatting.RESET.toString() + tag.getUniqueId("id"));
-                tooltip.add(TextFormatting.RED.toString() + TextFormatting.BOLD.toString() + "Device: " + TextFormatting.RESET.toString() + tag.getString("name"));
+                tooltip.add(TextFormatting.RED.toString() + TextFormatting.BOLD.toString() + (tag.getBoolean("router") ? "Router: " : "Device: ") + TextFormatting.RESET.toString() + tag.getString("name"));
 
                 BlockPos devicePos = BlockPos.fromLong(tag.getLong("pos"));
                 StringBuilder builder = new StringBuilder();
@@ -183,6 +221,8 @@ public class ItemEthernetCable extends Item
             tooltip.add(TextFormatting.GRAY.toString() + "then right click the ");
             tooltip.add(TextFormatting.GRAY.toString() + "router you want to");
             tooltip.add(TextFormatting.GRAY.toString() + "connect this device to.");
+            tooltip.add(TextFormatting.GRAY.toString() + "Right click two routers");
+            tooltip.add(TextFormatting.GRAY.toString() + "to link their networks.");
         }
         super.addInformation(stack, worldIn, tooltip, flagIn);
     }
@@ -18,5 +18,8 @@ public class PacketHandler
 		INSTANCE.registerMessage(MessageSyncConfig.class, MessageSyncConfig.class, 4, Side.CLIENT);
 		INSTANCE.registerMessage(MessageSyncBlock.class, MessageSyncBlock.class, 5, Side.SERVER);
 		INSTANCE.registerMessage(MessageNotification.class, MessageNotification.class, 6, Side.CLIENT);
+		INSTANCE.registerMessage(MessageFileChanged.class, MessageFileChanged.class, 7, Side.CLIENT);
+		INSTANCE.registerMessage(MessageNetworkStats.class, MessageNetworkStats.class, 8, Side.CLIENT);
+		INSTANCE.registerMessage(MessageOpenLaptop.class, MessageOpenLaptop.class, 9, Side.CLIENT);
 	}
 }
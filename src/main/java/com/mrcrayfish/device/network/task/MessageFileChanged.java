@@ -0,0 +1,43 @@
+package com.mrcrayfish.device.network.task;
+
+import com.mrcrayfish.device.MrCrayfishDeviceMod;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Author: MrCrayfish
+ */
+public class MessageFileChanged implements IMessage, IMessageHandler<MessageFileChanged, IMessage>
+{
+    private NBTTagCompound changeTag;
+
+    public MessageFileChanged() {}
+
+    public MessageFileChanged(NBTTagCompound changeTag)
+    {
+        this.changeTag = changeTag;
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {
+        ByteBufUtils.writeTag(buf, changeTag);
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf)
+    {
+        changeTag = ByteBufUtils.readTag(buf);
+    }
+
+    @Override
+    public IMessage onMessage(MessageFileChanged message, MessageContext ctx)
+    {
+        MrCrayfishDeviceMod.proxy.handleFileChange(message.changeTag);
+        return null;
+    }
+}
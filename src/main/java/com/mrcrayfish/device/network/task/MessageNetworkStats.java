@@ -0,0 +1,43 @@
+package com.mrcrayfish.device.network.task;
+
+import com.mrcrayfish.device.MrCrayfishDeviceMod;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Author: MrCrayfish
+ */
+public class MessageNetworkStats implements IMessage, IMessageHandler<MessageNetworkStats, IMessage>
+{
+    private NBTTagCompound statsTag;
+
+    public MessageNetworkStats() {}
+
+    public MessageNetworkStats(NBTTagCompound statsTag)
+    {
+        this.statsTag = statsTag;
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {
+        ByteBufUtils.writeTag(buf, statsTag);
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf)
+    {
+        statsTag = ByteBufUtils.readTag(buf);
+    }
+
+    @Override
+    public IMessage onMessage(MessageNetworkStats message, MessageContext ctx)
+    {
+        MrCrayfishDeviceMod.proxy.handleNetworkStats(message.statsTag);
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.mrcrayfish.device.network.task;
+
+import com.mrcrayfish.device.MrCrayfishDeviceMod;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Sent to the player using a laptop with the system and application data of the laptop. Neither
+ * is part of the sync tag, so the laptop is only opened once they have been received.
+ *
+ * Author: MrCrayfish
+ */
+public class MessageOpenLaptop implements IMessage, IMessageHandler<MessageOpenLaptop, IMessage>
+{
+    private BlockPos pos;
+    private NBTTagCompound systemData;
+    private NBTTagCompound applicationData;
+
+    public MessageOpenLaptop() {}
+
+    public MessageOpenLaptop(BlockPos pos, NBTTagCompound systemData, NBTTagCompound applicationData)
+    {
+        this.pos = pos;
+        this.systemData = systemData;
+        this.applicationData = applicationData;
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {
+        buf.writeLong(pos.toLong());
+        ByteBufUtils.writeTag(buf, systemData);
+        ByteBufUtils.writeTag(buf, applicationData);
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf)
+    {
+        pos = BlockPos.fromLong(buf.readLong());
+        systemData = ByteBufUtils.readTag(buf);
+        applicationData = ByteBufUtils.readTag(buf);
+    }
+
+    @Override
+    public IMessage onMessage(MessageOpenLaptop message, MessageContext ctx)
+    {
+        MrCrayfishDeviceMod.proxy.openLaptop(message.pos, message.systemData, message.applicationData);
+        return null;
+    }
+}
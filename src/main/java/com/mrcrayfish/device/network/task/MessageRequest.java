@@ -2,7 +2,10 @@ package com.mrcrayfish.device.network.task;
 
 import com.mrcrayfish.device.api.task.Task;
 import com.mrcrayfish.device.api.task.TaskManager;
+import com.mrcrayfish.device.core.network.NetworkDiagnostics;
+import com.mrcrayfish.device.network.PacketHandler;
 import io.netty.buffer.ByteBuf;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
@@ -28,11 +31,22 @@ public class MessageRequest implements IMessage, IMessageHandler<MessageRequest,
 		return id;
 	}
 	
+	/**
+	 * Tasks access the world and tile entities, so they are processed on the server thread. The
+	 * response is prepared there too, as the same task instance handles every request.
+	 */
 	@Override
 	public IMessage onMessage(MessageRequest message, MessageContext ctx) 
 	{
-		message.request.processRequest(message.nbt, ctx.getServerHandler().player.world, ctx.getServerHandler().player);
-		return new MessageResponse(message.id, message.request);
+		EntityPlayerMP player = ctx.getServerHandler().player;
+		player.getServerWorld().addScheduledTask(() ->
+		{
+			long start = System.nanoTime();
+			message.request.processRequest(message.nbt, player.world, player);
+			NetworkDiagnostics.INSTANCE.recordTask(message.request.getName(), System.nanoTime() - start);
+			PacketHandler.INSTANCE.sendTo(new MessageResponse(message.id, message.request), player);
+		});
+		return null;
 	}
 
 	@Override
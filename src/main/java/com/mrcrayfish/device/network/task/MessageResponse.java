@@ -13,6 +13,7 @@ public class MessageResponse implements IMessage, IMessageHandler<MessageRespons
 {
 	private int id;
 	private Task request;
+	private boolean successful;
 	private NBTTagCompound nbt;
 	
 	public MessageResponse() {}
@@ -21,6 +22,10 @@ public class MessageResponse implements IMessage, IMessageHandler<MessageRespons
 	{
 		this.id = id;
 		this.request = request;
+		this.successful = request.isSucessful();
+		this.nbt = new NBTTagCompound();
+		request.prepareResponse(this.nbt);
+		request.complete();
 	}
 	
 	@Override
@@ -46,12 +51,9 @@ public class MessageResponse implements IMessage, IMessageHandler<MessageRespons
 	public void toBytes(ByteBuf buf) 
 	{
 		buf.writeInt(this.id);
-		buf.writeBoolean(this.request.isSucessful());
+		buf.writeBoolean(this.successful);
 		ByteBufUtils.writeUTF8String(buf, this.request.getName());
-		NBTTagCompound nbt = new NBTTagCompound();
-		this.request.prepareResponse(nbt);
-		ByteBufUtils.writeTag(buf, nbt);
-		this.request.complete();
+		ByteBufUtils.writeTag(buf, this.nbt);
 	}
 
 }
@@ -1,10 +1,12 @@
 package com.mrcrayfish.device.network.task;
 
+import com.mrcrayfish.device.core.network.NetworkLookup;
 import com.mrcrayfish.device.tileentity.TileEntityRouter;
 import io.netty.buffer.ByteBuf;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
@@ -15,6 +17,8 @@ import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 public class MessageSyncBlock implements IMessage, IMessageHandler<MessageSyncBlock, MessageSyncBlock>
 {
     private BlockPos routerPos;
+    private long since = -1;
+    private int epoch;
 
     public MessageSyncBlock() {}
 
@@ -23,28 +27,43 @@ public class MessageSyncBlock implements IMessage, IMessageHandler<MessageSyncBl
         this.routerPos = routerPos;
     }
 
+    public MessageSyncBlock(BlockPos routerPos, long since, int epoch)
+    {
+        this.routerPos = routerPos;
+        this.since = since;
+        this.epoch = epoch;
+    }
+
     @Override
     public void toBytes(ByteBuf buf)
     {
         buf.writeLong(routerPos.toLong());
+        buf.writeLong(since);
+        buf.writeInt(epoch);
     }
 
     @Override
     public void fromBytes(ByteBuf buf)
     {
         routerPos = BlockPos.fromLong(buf.readLong());
+        since = buf.readLong();
+        epoch = buf.readInt();
     }
 
     @Override
     public MessageSyncBlock onMessage(MessageSyncBlock message, MessageContext ctx)
     {
-        World world = ctx.getServerHandler().player.world;
-        TileEntity tileEntity = world.getTileEntity(message.routerPos);
-        if(tileEntity instanceof TileEntityRouter)
+        EntityPlayerMP player = ctx.getServerHandler().player;
+        WorldServer world = player.getServerWorld();
+        world.addScheduledTask(() ->
         {
-            TileEntityRouter tileEntityRouter = (TileEntityRouter) tileEntity;
-            tileEntityRouter.syncDevicesToClient();
-        }
+            TileEntity tileEntity = NetworkLookup.getTileEntity(world, message.routerPos);
+            if(tileEntity instanceof TileEntityRouter)
+            {
+                TileEntityRouter tileEntityRouter = (TileEntityRouter) tileEntity;
+                tileEntityRouter.syncDevicesToClient(player, message.since, message.epoch);
+            }
+        });
         return null;
     }
 }
@@ -0,0 +1,309 @@
+package com.mrcrayfish.device.programs.system;
+
+import com.mrcrayfish.device.api.app.Layout;
+import com.mrcrayfish.device.api.app.component.ItemList;
+import com.mrcrayfish.device.api.app.component.Label;
+import com.mrcrayfish.device.api.app.renderer.ListItemRenderer;
+import com.mrcrayfish.device.api.task.TaskManager;
+import com.mrcrayfish.device.api.utils.RenderUtil;
+import com.mrcrayfish.device.core.Laptop;
+import com.mrcrayfish.device.core.network.task.TaskPing;
+import com.mrcrayfish.device.core.network.task.TaskWatchNetwork;
+import com.mrcrayfish.device.programs.system.object.RingBuffer;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Gui;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.common.util.Constants;
+
+import javax.annotation.Nullable;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shows the health of the networks on the server. The server pushes new statistics once a
+ * second while the application is open, and the history of each graph is kept in a ring buffer
+ * so nothing is allocated as the graphs scroll.
+ *
+ * Author: MrCrayfish
+ */
+public class ApplicationNetworkDiagnostics extends SystemApplication
+{
+	private static final int HISTORY = 60;
+	private static final int PING_BURST = 5;
+	private static final int GRAPH_WIDTH = HISTORY * 3;
+	private static final int GRAPH_HEIGHT = 34;
+	private static final int COLOR_GRAPH_BACKGROUND = new Color(32, 32, 32).getRGB();
+
+	@Nullable
+	private static ApplicationNetworkDiagnostics active;
+
+	private Layout layoutMain;
+	private ItemList<RouterStats> itemListRouters;
+	private Label labelRouter;
+	private Label labelBeacons;
+	private Label labelTasks;
+	private Label labelScheduler;
+	private Label labelStatus;
+
+	private final Map<UUID, RouterStats> routers = new HashMap<>();
+	private final RingBuffer pingHistory = new RingBuffer(HISTORY);
+	private final RingBuffer beaconHistory = new RingBuffer(HISTORY);
+	private boolean pinging;
+	private float pingMin;
+	private float pingAvg;
+	private float pingMax;
+
+	public ApplicationNetworkDiagnostics()
+	{
+		this.setDefaultWidth(300);
+		this.setDefaultHeight(150);
+	}
+
+	@Override
+	public void init(@Nullable NBTTagCompound intent)
+	{
+		layoutMain = new Layout(300, 150);
+		layoutMain.setBackground((gui, mc, x, y, width, height, mouseX, mouseY, windowActive) ->
+		{
+			RouterStats selected = itemListRouters.getSelectedItem();
+			drawGraph(mc, x + 112, y + 30, selected != null ? selected.throughput : null, Color.GREEN.getRGB(), "Throughput", selected != null ? formatBytes(selected.throughput.getLatest()) + "/s" : "-");
+			drawGraph(mc, x + 112, y + 80, pingHistory, Color.CYAN.getRGB(), "Ping RTT", String.format("%.0f/%.0f/%.0f ms", pingMin, pingAvg, pingMax));
+		});
+
+		layoutMain.addComponent(new Label("Routers", 5, 5));
+
+		itemListRouters = new ItemList<>(5, 18, 100, 7);
+		itemListRouters.setListItemRenderer(new ListItemRenderer<RouterStats>(14)
+		{
+			@Override
+			public void render(RouterStats stats, Gui gui, Minecraft mc, int x, int y, int width, int height, boolean selected)
+			{
+				Gui.drawRect(x, y, x + width, y + height, selected ? Color.DARK_GRAY.getRGB() : Color.GRAY.getRGB());
+				RenderUtil.drawStringClipped(stats.name, x + 3, y + 3, 62, stats.loaded ? Color.WHITE.getRGB() : Color.LIGHT_GRAY.getRGB(), false);
+				String count = stats.connected + "/" + stats.devices;
+				mc.fontRenderer.drawString(count, x + width - 3 - mc.fontRenderer.getStringWidth(count), y + 3, Color.WHITE.getRGB());
+			}
+		});
+		itemListRouters.setItemClickListener((stats, index, mouseButton) -> updateRouterLabel());
+		layoutMain.addComponent(itemListRouters);
+
+		labelRouter = new Label("", 112, 5);
+		layoutMain.addComponent(labelRouter);
+
+		labelBeacons = new Label("", 5, 119);
+		layoutMain.addComponent(labelBeacons);
+
+		labelTasks = new Label("", 5, 129);
+		layoutMain.addComponent(labelTasks);
+
+		labelScheduler = new Label("", 5, 139);
+		layoutMain.addComponent(labelScheduler);
+
+		labelStatus = new Label("Waiting for the server...", 112, 16);
+		layoutMain.addComponent(labelStatus);
+
+		setCurrentLayout(layoutMain);
+
+		active = this;
+		TaskManager.sendTask(new TaskWatchNetwork(true).setCallback((nbt, success) ->
+		{
+			if(!success)
+			{
+				labelStatus.setText("Only operators can view the network");
+			}
+		}));
+	}
+
+	@Override
+	public void onClose()
+	{
+		super.onClose();
+		if(active == this)
+		{
+			active = null;
+		}
+		TaskManager.sendTask(new TaskWatchNetwork(false));
+	}
+
+	/**
+	 * Called when the server pushes new statistics to the client.
+	 *
+	 * @param tag the statistics
+	 */
+	public static void handleStats(NBTTagCompound tag)
+	{
+		if(active != null)
+		{
+			active.updateStats(tag);
+		}
+	}
+
+	private void updateStats(NBTTagCompound tag)
+	{
+		labelStatus.setText("");
+
+		NBTTagList routerList = tag.getTagList("routers", Constants.NBT.TAG_COMPOUND);
+		List<RouterStats> items = new ArrayList<>();
+		Map<UUID, RouterStats> previous = new HashMap<>(routers);
+		routers.clear();
+		for(int i = 0; i < routerList.tagCount(); i++)
+		{
+			NBTTagCompound routerTag = routerList.getCompoundTagAt(i);
+			UUID id = routerTag.getUniqueId("id");
+			RouterStats stats = previous.containsKey(id) ? previous.get(id) : new RouterStats();
+			stats.update(routerTag);
+			routers.put(id, stats);
+			items.add(stats);
+		}
+
+		RouterStats selected = itemListRouters.getSelectedItem();
+		itemListRouters.setItems(items);
+		if(selected != null && items.contains(selected))
+		{
+			itemListRouters.setSelectedIndex(items.indexOf(selected));
+		}
+		else if(!items.isEmpty())
+		{
+			itemListRouters.setSelectedIndex(0);
+		}
+		updateRouterLabel();
+
+		NBTTagCompound beaconTag = tag.getCompoundTag("beacons");
+		beaconHistory.add(beaconTag.getLong("average") / 1000F);
+		labelBeacons.setText(String.format("Beacons: %d/s, %.0f us avg, %.0f us max", beaconTag.getInteger("count"), beaconHistory.getLatest(), beaconTag.getLong("max") / 1000F));
+		labelScheduler.setText(String.format("Scheduled sweeps: %d | Chunk loads avoided: %d", tag.getInteger("scheduled"), tag.getLong("avoidedLoads")));
+
+		String slowestTask = null;
+		long slowestTime = 0;
+		int taskCount = 0;
+		NBTTagList taskList = tag.getTagList("tasks", Constants.NBT.TAG_COMPOUND);
+		for(int i = 0; i < taskList.tagCount(); i++)
+		{
+			NBTTagCompound taskTag = taskList.getCompoundTagAt(i);
+			taskCount += taskTag.getInteger("count");
+			if(taskTag.getLong("max") > slowestTime)
+			{
+				slowestTime = taskTag.getLong("max");
+				slowestTask = taskTag.getString("name");
+			}
+		}
+		labelTasks.setText(slowestTask != null ? String.format("Tasks: %d/s, slowest '%s' %.2f ms", taskCount, slowestTask, slowestTime / 1000000F) : "Tasks: none");
+
+		sendPing();
+	}
+
+	/**
+	 * Measures the round trip time with a burst of pings from the laptop. Only one burst is sent
+	 * per push, so the round trip is sampled at the same low rate.
+	 */
+	private void sendPing()
+	{
+		BlockPos pos = Laptop.getPos();
+		if(pos == null || pinging)
+			return;
+
+		pinging = true;
+		TaskPing.sendBurst(pos, null, PING_BURST, (nbt, success) ->
+		{
+			if(success)
+			{
+				pingMin = nbt.getFloat("min");
+				pingAvg = nbt.getFloat("avg");
+				pingMax = nbt.getFloat("max");
+				pingHistory.add(pingAvg);
+			}
+			pinging = false;
+		});
+	}
+
+	private void updateRouterLabel()
+	{
+		RouterStats stats = itemListRouters.getSelectedItem();
+		if(stats == null)
+		{
+			labelRouter.setText("No routers");
+		}
+		else if(!stats.loaded)
+		{
+			labelRouter.setText(stats.name + " (unloaded)");
+		}
+		else
+		{
+			labelRouter.setText(String.format("Queue: %d, %s | Lost: %d of %d", stats.queueDepth, formatBytes(stats.queuedBytes), stats.dropped, stats.delivered + stats.dropped));
+		}
+	}
+
+	private static void drawGraph(Minecraft mc, int x, int y, @Nullable RingBuffer buffer, int color, String title, String value)
+	{
+		mc.fontRenderer.drawString(title, x, y - 10, Color.WHITE.getRGB());
+		mc.fontRenderer.drawString(value, x + GRAPH_WIDTH - mc.fontRenderer.getStringWidth(value), y - 10, Color.LIGHT_GRAY.getRGB());
+		Gui.drawRect(x, y, x + GRAPH_WIDTH, y + GRAPH_HEIGHT, COLOR_GRAPH_BACKGROUND);
+		if(buffer == null || buffer.size() == 0)
+			return;
+
+		float max = Math.max(buffer.getMax(), 1F);
+		int barWidth = GRAPH_WIDTH / buffer.getCapacity();
+		int offset = GRAPH_WIDTH - buffer.size() * barWidth;
+		for(int i = 0; i < buffer.size(); i++)
+		{
+			int barHeight = Math.round(buffer.get(i) / max * GRAPH_HEIGHT);
+			int barX = x + offset + i * barWidth;
+			Gui.drawRect(barX, y + GRAPH_HEIGHT - barHeight, barX + barWidth, y + GRAPH_HEIGHT, color);
+		}
+	}
+
+	private static String formatBytes(float bytes)
+	{
+		return bytes >= 1024 ? String.format("%.1f KB", bytes / 1024F) : String.format("%.0f B", bytes);
+	}
+
+	@Override
+	public void load(NBTTagCompound tagCompound)
+	{
+
+	}
+
+	@Override
+	public void save(NBTTagCompound tagCompound)
+	{
+
+	}
+
+	private static class RouterStats
+	{
+		private final RingBuffer throughput = new RingBuffer(HISTORY);
+		private String name;
+		private boolean loaded;
+		private int devices;
+		private int connected;
+		private int queueDepth;
+		private int queuedBytes;
+		private long delivered;
+		private long dropped;
+
+		private void update(NBTTagCompound tag)
+		{
+			name = tag.getString("name");
+			loaded = tag.getBoolean("loaded");
+			devices = tag.getInteger("devices");
+			connected = tag.getInteger("connected");
+			queueDepth = tag.getInteger("queueDepth");
+			queuedBytes = tag.getInteger("queuedBytes");
+			delivered = tag.getLong("delivered");
+			dropped = tag.getLong("dropped");
+			throughput.add(tag.getInteger("throughput"));
+		}
+
+		@Override
+		public String toString()
+		{
+			return name;
+		}
+	}
+}
@@ -11,6 +11,7 @@ import com.mrcrayfish.device.api.app.listener.ItemClickListener;
 import com.mrcrayfish.device.api.app.renderer.ListItemRenderer;
 import com.mrcrayfish.device.api.io.Drive;
 import com.mrcrayfish.device.api.io.File;
+import com.mrcrayfish.device.api.io.FileJob;
 import com.mrcrayfish.device.api.io.Folder;
 import com.mrcrayfish.device.api.task.Callback;
 import com.mrcrayfish.device.api.task.Task;
@@ -19,10 +20,11 @@ import com.mrcrayfish.device.api.utils.RenderUtil;
 import com.mrcrayfish.device.core.Laptop;
 import com.mrcrayfish.device.core.Window;
 import com.mrcrayfish.device.core.Wrappable;
+import com.mrcrayfish.device.core.io.FileCache;
 import com.mrcrayfish.device.core.io.FileSystem;
-import com.mrcrayfish.device.core.io.task.TaskGetFiles;
 import com.mrcrayfish.device.core.io.task.TaskGetStructure;
 import com.mrcrayfish.device.core.io.task.TaskSetupFileBrowser;
+import com.mrcrayfish.device.core.io.task.TaskWatchFolder;
 import com.mrcrayfish.device.object.AppInfo;
 import com.mrcrayfish.device.programs.system.SystemApplication;
 import net.minecraft.client.Minecraft;
@@ -35,12 +37,20 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraftforge.common.util.Constants;
 
+import javax.annotation.Nullable;
 import java.awt.*;
 import java.lang.System;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.Stack;
+import java.util.UUID;
+import java.util.WeakHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -79,7 +89,9 @@ public class FileBrowser extends Component
         }
     };
 
-    public static boolean refreshList = false;
+    /* Browsers that are currently open, used to apply changes pushed by the server */
+    private static final Set<FileBrowser> OPEN_BROWSERS = Collections.newSetFromMap(new WeakHashMap<>());
+    private static final Map<String, Integer> WATCH_COUNTS = new HashMap<>();
 
     private final Wrappable wrappable;
     private final Mode mode;
@@ -110,6 +122,10 @@ public class FileBrowser extends Component
 
     private String initialFolder = FileSystem.DIR_ROOT;
     private boolean loadedStructure = false;
+    private boolean refreshList = false;
+
+    private Drive watchedDrive;
+    private String watchedPath;
 
     private long lastClick = 0;
 
@@ -360,6 +376,7 @@ public class FileBrowser extends Component
     @Override
     public void handleLoad()
     {
+        OPEN_BROWSERS.add(this);
         if(!loadedStructure)
         {
             setLoading(true);
@@ -426,14 +443,121 @@ public class FileBrowser extends Component
         }
     }
 
+    @Override
+    protected void handleUnload()
+    {
+        OPEN_BROWSERS.remove(this);
+        unwatch();
+    }
+
     @Override
     public void handleTick()
     {
         if(refreshList)
         {
+            refreshList = false;
             fileList.removeAll();
-            fileList.setItems(currentFolder.getFiles());
+            fileList.setItems(getVisibleFiles(currentFolder));
+        }
+    }
+
+    /**
+     * Notifies the open browsers that the files of a folder have changed. Browsers that are
+     * currently showing the folder will update their file list.
+     *
+     * @param folder the folder that changed
+     */
+    public static void markChanged(Folder folder)
+    {
+        for(FileBrowser browser : OPEN_BROWSERS)
+        {
+            if(browser.currentFolder == folder)
+            {
+                if(folder.isSynced())
+                {
+                    browser.refreshList = true;
+                }
+                else
+                {
+                    browser.openFolder(folder, false, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a change to a watched folder that was made by another player.
+     *
+     * @param change the change received from the server
+     */
+    public static void handleFileChange(NBTTagCompound change)
+    {
+        UUID uuid = UUID.fromString(change.getString("drive"));
+        FileCache.INSTANCE.invalidateTree(uuid, change.getString("directory"));
+
+        Set<Drive> drives = Collections.newSetFromMap(new IdentityHashMap<>());
+        if(Laptop.getMainDrive() != null)
+        {
+            drives.add(Laptop.getMainDrive());
+        }
+        OPEN_BROWSERS.stream().map(browser -> browser.currentDrive).filter(Objects::nonNull).forEach(drives::add);
+
+        for(Drive drive : drives)
+        {
+            if(drive.getUUID().equals(uuid))
+            {
+                Folder folder = drive.applyChange(change);
+                if(folder != null)
+                {
+                    markChanged(folder);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops watching all folders. Called when the laptop is closed.
+     */
+    public static void clearWatches()
+    {
+        if(!WATCH_COUNTS.isEmpty())
+        {
+            TaskManager.sendTask(TaskWatchFolder.unwatchAll());
+        }
+        WATCH_COUNTS.clear();
+        OPEN_BROWSERS.clear();
+    }
+
+    private void watch(Folder folder)
+    {
+        Drive drive = folder.getDrive();
+        String path = folder.getPath();
+        if(drive == watchedDrive && path.equals(watchedPath))
+            return;
+
+        unwatch();
+        if(drive == null)
+            return;
+
+        watchedDrive = drive;
+        watchedPath = path;
+        if(WATCH_COUNTS.merge(drive.getUUID() + ":" + path, 1, Integer::sum) == 1)
+        {
+            TaskManager.sendTask(new TaskWatchFolder(drive, path, true, Laptop.getPos()));
+        }
+    }
+
+    private void unwatch()
+    {
+        if(watchedDrive == null)
+            return;
+
+        if(WATCH_COUNTS.computeIfPresent(watchedDrive.getUUID() + ":" + watchedPath, (key, count) -> count > 1 ? count - 1 : null) == null)
+        {
+            TaskManager.sendTask(new TaskWatchFolder(watchedDrive, watchedPath, false, Laptop.getPos()));
         }
+        watchedDrive = null;
+        watchedPath = null;
     }
 
     public void openFolder(String directory)
@@ -457,13 +581,13 @@ public class FileBrowser extends Component
         else
         {
             setLoading(true);
-            TaskGetStructure task = new TaskGetStructure(drive, Laptop.getPos());
+            TaskGetStructure task = new TaskGetStructure(drive, FileSystem.DIR_ROOT, 1, Laptop.getPos());
             task.setCallback((nbt, success) ->
             {
                 setLoading(false);
                 if(success)
                 {
-                    Folder folder = Folder.fromTag(nbt.getString("file_name"), nbt.getCompoundTag("structure"));
+                    Folder folder = Folder.fromTag("Root", nbt.getCompoundTag("structure"));
                     drive.syncRoot(folder);
                     openFolder(drive.getRoot(), false, (folder1, success1) ->
                     {
@@ -497,13 +621,10 @@ public class FileBrowser extends Component
             }
             
             setLoading(true);
-            Task task = new TaskGetFiles(folder, pos); //TODO convert to file system
-            task.setCallback((nbt, success) ->
+            folder.sync((syncedFolder, success) ->
             {
-                if(success && nbt.hasKey("files", Constants.NBT.TAG_LIST))
+                if(success)
                 {
-                    NBTTagList files = nbt.getTagList("files", Constants.NBT.TAG_COMPOUND);
-                    folder.syncFiles(files);
                     setCurrentFolder(folder, push);
                 }
                 if(callback != null)
@@ -512,7 +633,6 @@ public class FileBrowser extends Component
                 }
                 setLoading(false);
             });
-            TaskManager.sendTask(task);
         }
         else
         {
@@ -534,16 +654,22 @@ public class FileBrowser extends Component
         }
         currentDrive = folder.getDrive();
         currentFolder = folder;
+        refreshList = false;
         fileList.removeAll();
+        fileList.setItems(getVisibleFiles(folder));
+        watch(folder);
 
+        updatePath();
+    }
+
+    private List<File> getVisibleFiles(Folder folder)
+    {
         List<File> files = folder.getFiles();
         if(filter != null)
         {
             files = files.stream().filter(filter).collect(Collectors.toList());
         }
-        fileList.setItems(files);
-
-        updatePath();
+        return files;
     }
 
     private void pushPredecessors(Folder folder)
@@ -622,7 +748,6 @@ public class FileBrowser extends Component
             if(response.getStatus() == FileSystem.Status.SUCCESSFUL)
             {
                 fileList.addItem(file);
-                FileBrowser.refreshList = true;
             }
             if(callback != null)
             {
@@ -640,7 +765,6 @@ public class FileBrowser extends Component
             if(response.getStatus() == FileSystem.Status.SUCCESSFUL)
             {
                 fileList.addItem(file);
-                FileBrowser.refreshList = true;
             }
             if(callback != null)
             {
@@ -711,7 +835,6 @@ public class FileBrowser extends Component
                 if(success)
                 {
                     fileList.removeItem(index);
-                    FileBrowser.refreshList = true;
                 }
                 setLoading(false);
             });
@@ -737,7 +860,6 @@ public class FileBrowser extends Component
                 {
                     int index = fileList.getItems().indexOf(file);
                     fileList.removeItem(index);
-                    FileBrowser.refreshList = true;
                 }
                 setLoading(false);
             });
@@ -824,6 +946,15 @@ public class FileBrowser extends Component
                 });
                 wrappable.openDialog(dialog);
             }
+            else if(response.getStatus() == FileSystem.Status.JOB_QUEUED)
+            {
+                FileJob job = FileJob.get(UUID.fromString(response.getMessage()));
+                if(job != null)
+                {
+                    wrappable.openDialog(new JobDialog(job));
+                }
+                return;
+            }
             else if(response.getStatus() == FileSystem.Status.SUCCESSFUL)
             {
                 resetClipboard();
@@ -1036,4 +1167,68 @@ public class FileBrowser extends Component
             return visibleItems;
         }
     }
+
+    /**
+     * Shows the progress of a copy or move that is being processed in the background on the
+     * server. The dialog closes itself once the job has finished.
+     */
+    private static class JobDialog extends Dialog
+    {
+        private final FileJob job;
+
+        private ProgressBar progressBar;
+        private Label labelProgress;
+
+        private JobDialog(FileJob job)
+        {
+            this.job = job;
+            this.setTitle("Copying");
+        }
+
+        @Override
+        public void init(@Nullable NBTTagCompound intent)
+        {
+            super.init(intent);
+
+            defaultLayout.height = 60;
+            super.init(intent);
+
+            defaultLayout.setBackground((gui, mc, x, y, width, height, mouseX, mouseY, windowActive) -> Gui.drawRect(x, y, x + width, y + height, Color.LIGHT_GRAY.getRGB()));
+
+            labelProgress = new Label("Preparing...", 5, 5);
+            this.addComponent(labelProgress);
+
+            progressBar = new ProgressBar(5, 18, getWidth() - 10, 10);
+            progressBar.setMax(1);
+            this.addComponent(progressBar);
+
+            Button buttonCancel = new Button(getWidth() - 45, getHeight() - 20, 40, 16, "Cancel");
+            buttonCancel.setClickListener((mouseX, mouseY, mouseButton) ->
+            {
+                if(mouseButton == 0)
+                {
+                    job.cancel();
+                    buttonCancel.setEnabled(false);
+                }
+            });
+            this.addComponent(buttonCancel);
+        }
+
+        @Override
+        public void onTick()
+        {
+            super.onTick();
+            if(job.isFinished())
+            {
+                close();
+                return;
+            }
+            if(job.getTotal() > 0)
+            {
+                progressBar.setMax(job.getTotal());
+                progressBar.setProgress(job.getProgress());
+                labelProgress.setText(job.getProgress() + " / " + job.getTotal() + " files");
+            }
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.mrcrayfish.device.programs.system.object;
+
+/**
+ * A fixed amount of the latest values added, used to draw graphs. The array is allocated once
+ * and the oldest value is overwritten when it is full, so adding values never allocates.
+ *
+ * Author: MrCrayfish
+ */
+public class RingBuffer
+{
+    private final float[] values;
+    private int head;
+    private int size;
+
+    public RingBuffer(int capacity)
+    {
+        this.values = new float[capacity];
+    }
+
+    public void add(float value)
+    {
+        values[head] = value;
+        head = (head + 1) % values.length;
+        if(size < values.length)
+        {
+            size++;
+        }
+    }
+
+    /**
+     * Gets a value, where 0 is the oldest value still in the buffer.
+     *
+     * @param index the index of the value
+     * @return the value
+     */
+    public float get(int index)
+    {
+        return values[(head - size + index + values.length) % values.length];
+    }
+
+    public float getLatest()
+    {
+        return size > 0 ? get(size - 1) : 0F;
+    }
+
+    public float getMin()
+    {
+        float min = size > 0 ? Float.MAX_VALUE : 0F;
+        for(int i = 0; i < size; i++)
+        {
+            min = Math.min(min, get(i));
+        }
+        return min;
+    }
+
+    public float getMax()
+    {
+        float max = 0F;
+        for(int i = 0; i < size; i++)
+        {
+            max = Math.max(max, get(i));
+        }
+        return max;
+    }
+
+    public float getAverage()
+    {
+        if(size == 0)
+            return 0F;
+
+        float total = 0F;
+        for(int i = 0; i < size; i++)
+        {
+            total += get(i);
+        }
+        return total / size;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int getCapacity()
+    {
+        return values.length;
+    }
+
+    public void clear()
+    {
+        head = 0;
+        size = 0;
+    }
+}
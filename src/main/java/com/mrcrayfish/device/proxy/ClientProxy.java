@@ -9,8 +9,12 @@ import com.mrcrayfish.device.api.print.IPrint;
 import com.mrcrayfish.device.api.print.PrintingManager;
 import com.mrcrayfish.device.core.Laptop;
 import com.mrcrayfish.device.core.client.ClientNotification;
+import com.mrcrayfish.device.core.io.FileCache;
+import com.mrcrayfish.device.event.DebugEvents;
 import com.mrcrayfish.device.object.AppInfo;
 import com.mrcrayfish.device.programs.system.SystemApplication;
+import com.mrcrayfish.device.programs.system.ApplicationNetworkDiagnostics;
+import com.mrcrayfish.device.programs.system.component.FileBrowser;
 import com.mrcrayfish.device.tileentity.*;
 import com.mrcrayfish.device.tileentity.render.*;
 import net.minecraft.client.Minecraft;
@@ -19,8 +23,12 @@ import net.minecraft.client.renderer.texture.TextureUtil;
 import net.minecraft.client.resources.IReloadableResourceManager;
 import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.client.resources.IResourceManagerReloadListener;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.client.registry.ClientRegistry;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.network.FMLNetworkEvent;
@@ -43,6 +51,7 @@ public class ClientProxy extends CommonProxy implements IResourceManagerReloadLi
     {
         super.preInit();
         ((IReloadableResourceManager)Minecraft.getMinecraft().getResourceManager()).registerReloadListener(this);
+        MinecraftForge.EVENT_BUS.register(new DebugEvents());
     }
 
     @Override
@@ -232,6 +241,7 @@ public class ClientProxy extends CommonProxy implements IResourceManagerReloadLi
     {
         allowedApps = null;
         DeviceConfig.restore();
+        FileCache.INSTANCE.clear();
     }
 
     @Override
@@ -240,4 +250,31 @@ public class ClientProxy extends CommonProxy implements IResourceManagerReloadLi
         ClientNotification notification = ClientNotification.loadFromTag(tag);
         notification.push();
     }
+
+    @Override
+    public void handleFileChange(NBTTagCompound tag)
+    {
+        Minecraft.getMinecraft().addScheduledTask(() -> FileBrowser.handleFileChange(tag));
+    }
+
+    @Override
+    public void handleNetworkStats(NBTTagCompound tag)
+    {
+        Minecraft.getMinecraft().addScheduledTask(() -> ApplicationNetworkDiagnostics.handleStats(tag));
+    }
+
+    @Override
+    public void openLaptop(BlockPos pos, NBTTagCompound systemData, NBTTagCompound applicationData)
+    {
+        Minecraft.getMinecraft().addScheduledTask(() ->
+        {
+            EntityPlayer player = Minecraft.getMinecraft().player;
+            TileEntity tileEntity = player.world.getTileEntity(pos);
+            if(tileEntity instanceof TileEntityLaptop)
+            {
+                ((TileEntityLaptop) tileEntity).setClientData(systemData, applicationData);
+                player.openGui(MrCrayfishDeviceMod.instance, Laptop.ID, player.world, pos.getX(), pos.getY(), pos.getZ());
+            }
+        });
+    }
 }
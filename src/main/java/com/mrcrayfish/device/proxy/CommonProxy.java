@@ -12,6 +12,7 @@ import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.init.Items;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
@@ -99,4 +100,10 @@ public class CommonProxy
 	}
 
 	public void showNotification(NBTTagCompound tag) {}
+
+	public void handleFileChange(NBTTagCompound tag) {}
+
+	public void handleNetworkStats(NBTTagCompound tag) {}
+
+	public void openLaptop(BlockPos pos, NBTTagCompound systemData, NBTTagCompound applicationData) {}
 }
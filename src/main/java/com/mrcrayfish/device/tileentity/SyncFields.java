@@ -0,0 +1,68 @@
+package com.mrcrayfish.device.tileentity;
+
+import net.minecraft.nbt.NBTTagCompound;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The sync fields declared by a {@link TileEntitySync}. Which fields changed since the last delta
+ * is kept as a bit mask, so marking a field dirty multiple times in a tick costs nothing.
+ *
+ * Author: MrCrayfish
+ */
+class SyncFields
+{
+    static final int MAX_SYNC_FIELDS = 64;
+
+    private final List<TileEntitySync.SyncField> fields = new ArrayList<>();
+    private long dirtyFields;
+
+    public void register(String key, TileEntitySync.SyncField.Writer writer)
+    {
+        if(fields.size() >= MAX_SYNC_FIELDS)
+            throw new IllegalStateException("A tile entity can not have more than " + MAX_SYNC_FIELDS + " sync fields");
+        fields.add(new TileEntitySync.SyncField(key, writer));
+    }
+
+    public void markDirty(String key)
+    {
+        for(int i = 0; i < fields.size(); i++)
+        {
+            if(fields.get(i).key.equals(key))
+            {
+                dirtyFields |= 1L << i;
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sync field '" + key + "'");
+    }
+
+    public boolean isDirty()
+    {
+        return dirtyFields != 0;
+    }
+
+    /**
+     * Writes the fields marked dirty since the last call and clears them.
+     *
+     * @param tag the tag to write the fields to
+     */
+    public void writeDirty(NBTTagCompound tag)
+    {
+        for(int i = 0; i < fields.size(); i++)
+        {
+            if((dirtyFields & (1L << i)) != 0)
+            {
+                TileEntitySync.SyncField field = fields.get(i);
+                field.writer.write(tag, field.key);
+            }
+        }
+        dirtyFields = 0;
+    }
+
+    public void writeAll(NBTTagCompound tag)
+    {
+        fields.forEach(field -> field.writer.write(tag, field.key));
+    }
+}
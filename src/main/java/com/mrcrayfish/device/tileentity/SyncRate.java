@@ -0,0 +1,46 @@
+package com.mrcrayfish.device.tileentity;
+
+import com.mrcrayfish.device.core.io.PackedData;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * Measures the amount of bytes a tile entity receives from the server over the last second. The
+ * size of a tag is counted as it would be written to a packet, without the packet header. Only
+ * used on the client thread, where tile entity packets are handled and the overlay is drawn.
+ *
+ * Author: MrCrayfish
+ */
+class SyncRate
+{
+    private static final int WINDOW = 20;
+
+    private final int[] bytes = new int[WINDOW];
+    private long lastTime;
+
+    public void record(NBTTagCompound tag)
+    {
+        long time = System.currentTimeMillis() / 50;
+        clearUntil(time);
+        bytes[(int) (time % WINDOW)] += PackedData.sizeOf(tag);
+    }
+
+    public int getBytesPerSecond()
+    {
+        clearUntil(System.currentTimeMillis() / 50);
+        int total = 0;
+        for(int count : bytes)
+        {
+            total += count;
+        }
+        return total;
+    }
+
+    private void clearUntil(long time)
+    {
+        for(long t = Math.max(lastTime + 1, time - WINDOW + 1); t <= time; t++)
+        {
+            bytes[(int) (t % WINDOW)] = 0;
+        }
+        lastTime = Math.max(lastTime, time);
+    }
+}
@@ -1,7 +1,7 @@
 package com.mrcrayfish.device.tileentity;
 
+import com.mrcrayfish.device.MrCrayfishDeviceMod;
 import com.mrcrayfish.device.core.io.FileSystem;
-import com.mrcrayfish.device.util.TileEntityUtil;
 import net.minecraft.item.EnumDyeColor;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -21,6 +21,9 @@ public class TileEntityLaptop extends TileEntityNetworkDevice.Colored
 	private NBTTagCompound systemData;
 	private FileSystem fileSystem;
 
+	/* The saved file system, kept as is until something needs the drives */
+	private NBTTagCompound fileSystemTag;
+
 	@SideOnly(Side.CLIENT)
 	private int rotation;
 
@@ -30,6 +33,12 @@ public class TileEntityLaptop extends TileEntityNetworkDevice.Colored
 	@SideOnly(Side.CLIENT)
 	private EnumDyeColor externalDriveColor;
 
+	public TileEntityLaptop()
+	{
+		registerSyncField("open", (tag, key) -> tag.setBoolean(key, open));
+		registerSyncField("external_drive_color", (tag, key) -> tag.setByte(key, getAttachedDriveColorId()));
+	}
+
 	@Override
 	public String getDeviceName()
 	{
@@ -78,7 +87,8 @@ public class TileEntityLaptop extends TileEntityNetworkDevice.Colored
 		}
 		if(compound.hasKey("file_system"))
 		{
-			this.fileSystem = new FileSystem(this, compound.getCompoundTag("file_system"));
+			this.fileSystem = null;
+			this.fileSystemTag = compound.getCompoundTag("file_system");
 		}
 		if(compound.hasKey("external_drive_color", Constants.NBT.TAG_BYTE))
 		{
@@ -109,27 +119,13 @@ public class TileEntityLaptop extends TileEntityNetworkDevice.Colored
 		if(fileSystem != null)
 		{
 			compound.setTag("file_system", fileSystem.toTag());
+			MrCrayfishDeviceMod.getLogger().debug("Saved the file system of the laptop at {} in {} us ({} us average over {} saves)", pos, fileSystem.getLastSaveTime() / 1000, fileSystem.getAverageSaveTime() / 1000, fileSystem.getSaveCount());
 		}
-		return compound;
-	}
-
-	@Override
-	public NBTTagCompound writeSyncTag()
-	{
-		NBTTagCompound tag = super.writeSyncTag();
-		tag.setBoolean("open", open);
-		tag.setTag("system_data", getSystemData());
-
-		if(getFileSystem().getAttachedDrive() != null)
-		{
-			tag.setByte("external_drive_color", (byte) getFileSystem().getAttachedDriveColor().getMetadata());
-		}
-		else
+		else if(fileSystemTag != null)
 		{
-			tag.setByte("external_drive_color", (byte) -1);
+			compound.setTag("file_system", fileSystemTag);
 		}
-
-		return tag;
+		return compound;
 	}
 
 	@Override
@@ -148,8 +144,7 @@ public class TileEntityLaptop extends TileEntityNetworkDevice.Colored
 	public void openClose()
 	{
 		open = !open;
-		pipeline.setBoolean("open", open);
-		sync();
+		sync("open");
 	}
 
 	public boolean isOpen()
@@ -171,27 +166,70 @@ public class TileEntityLaptop extends TileEntityNetworkDevice.Colored
 		return systemData;
 	}
 
+	/**
+	 * Gets the file system of this laptop. The drives are only loaded from the saved tag the first
+	 * time this is called, as most laptops that get loaded with a chunk are never used.
+	 *
+	 * @return the file system of this laptop
+	 */
 	public FileSystem getFileSystem()
 	{
 		if(fileSystem == null)
 		{
-			fileSystem = new FileSystem(this, new NBTTagCompound());
+			fileSystem = new FileSystem(this, fileSystemTag != null ? fileSystemTag : new NBTTagCompound());
+			fileSystemTag = null;
 		}
 		return fileSystem;
 	}
 
+	/**
+	 * Gets the color of the attached drive without loading the file system if it hasn't been
+	 * loaded yet.
+	 *
+	 * @return the metadata of the color, or -1 if no drive is attached
+	 */
+	private byte getAttachedDriveColorId()
+	{
+		if(fileSystem == null && fileSystemTag != null)
+		{
+			if(fileSystemTag.hasKey("external_drive", Constants.NBT.TAG_COMPOUND))
+			{
+				return fileSystemTag.getByte("external_drive_color");
+			}
+			return -1;
+		}
+		FileSystem fileSystem = getFileSystem();
+		if(fileSystem.getAttachedDrive() != null)
+		{
+			return (byte) fileSystem.getAttachedDriveColor().getMetadata();
+		}
+		return -1;
+	}
+
 	public void setApplicationData(String appId, NBTTagCompound applicationData)
 	{
 		this.applicationData = applicationData;
 		markDirty();
-		TileEntityUtil.markBlockForUpdate(world, pos);
 	}
 
 	public void setSystemData(NBTTagCompound systemData)
 	{
 		this.systemData = systemData;
 		markDirty();
-		TileEntityUtil.markBlockForUpdate(world, pos);
+	}
+
+	/**
+	 * Sets the system and application data received when opening this laptop. They are only sent
+	 * to the player using the laptop, so they are not part of the sync tag.
+	 *
+	 * @param systemData the system data
+	 * @param applicationData the application data
+	 */
+	@SideOnly(Side.CLIENT)
+	public void setClientData(NBTTagCompound systemData, NBTTagCompound applicationData)
+	{
+		this.systemData = systemData;
+		this.applicationData = applicationData;
 	}
 
 	@SideOnly(Side.CLIENT)
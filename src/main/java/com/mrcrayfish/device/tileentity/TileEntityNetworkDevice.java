@@ -2,7 +2,11 @@ package com.mrcrayfish.device.tileentity;
 
 import com.mrcrayfish.device.DeviceConfig;
 import com.mrcrayfish.device.core.network.Connection;
+import com.mrcrayfish.device.core.network.DeviceIndex;
+import com.mrcrayfish.device.core.network.NetworkMessage;
+import com.mrcrayfish.device.core.network.NetworkScheduler;
 import com.mrcrayfish.device.core.network.Router;
+import com.mrcrayfish.device.core.network.RouterRegistry;
 import com.mrcrayfish.device.util.IColored;
 import net.minecraft.item.EnumDyeColor;
 import net.minecraft.nbt.NBTTagCompound;
@@ -13,31 +17,122 @@ import net.minecraft.util.text.TextComponentString;
 import net.minecraftforge.common.util.Constants;
 
 import javax.annotation.Nullable;
+import java.util.UUID;
 
 /**
  * Author: MrCrayfish
  */
 public abstract class TileEntityNetworkDevice extends TileEntityDevice implements ITickable
 {
-    private int counter;
     private Connection connection;
 
     @Override
-    public void update()
+    public void update() {}
+
+    @Override
+    public void onLoad()
     {
-        if(world.isRemote)
-            return;
+        if(!world.isRemote)
+        {
+            DeviceIndex.get(world).add(this);
+            if(connection != null)
+            {
+                findRouter();
+            }
+            NetworkScheduler.INSTANCE.schedule(this, this::verifyConnection);
+        }
+    }
 
-        if(connection != null)
+    @Override
+    public void invalidate()
+    {
+        super.invalidate();
+        if(world != null && !world.isRemote)
         {
-            if(++counter >= DeviceConfig.getBeaconInterval() * 2)
+            unload();
+            if(connection != null && connection.isConnected())
             {
-                connection.setRouterPos(null);
-                counter = 0;
+                Router router = RouterRegistry.get(world).getRouter(connection.getRouterId());
+                if(router != null)
+                {
+                    router.onDeviceRemoved(this);
+                }
             }
         }
     }
 
+    /**
+     * The router keeps this device connected while its chunk is unloaded, as a dormant device.
+     */
+    @Override
+    public void onChunkUnload()
+    {
+        super.onChunkUnload();
+        if(!world.isRemote)
+        {
+            unload();
+        }
+    }
+
+    private void unload()
+    {
+        NetworkScheduler.INSTANCE.cancel(this);
+        DeviceIndex.get(world).remove(this);
+    }
+
+    /**
+     * Connects to a loaded router in range this device is registered to, preferring the router it
+     * was last connected to.
+     */
+    private void findRouter()
+    {
+        DeviceIndex index = DeviceIndex.get(world);
+        Router router = RouterRegistry.get(world).getRouter(connection.getRouterId());
+        if(router != null && router.isInRange(pos))
+        {
+            router.onDeviceLoaded(this);
+        }
+        for(TileEntityRouter tileEntityRouter : index.getRoutersInRange(pos, DeviceConfig.getSignalRange()))
+        {
+            if(isConnected())
+                break;
+            tileEntityRouter.getRouter().onDeviceLoaded(this);
+        }
+    }
+
+    /**
+     * Checks that the router this device is connected to is still loaded, in range and has this
+     * device registered. This is a safety net for events that were missed.
+     */
+    private void verifyConnection()
+    {
+        if(connection == null)
+            return;
+
+        if(connection.isConnected())
+        {
+            Router router = RouterRegistry.get(world).getRouter(connection.getRouterId());
+            if(router != null && router.isInRange(pos) && router.isDeviceRegistered(this))
+                return;
+            connection.setRouterPos(null);
+        }
+        findRouter();
+    }
+
+    /**
+     * Called by a router this device is registered to when the router is unloaded or broken.
+     *
+     * @param router the router
+     */
+    public void onRouterLost(Router router)
+    {
+        if(connection != null && connection.getRouterId().equals(router.getId()) && connection.isConnected())
+        {
+            connection.setRouterPos(null);
+            findRouter();
+        }
+    }
+
     public void connect(Router router)
     {
         if(router == null)
@@ -54,7 +149,6 @@ public abstract class TileEntityNetworkDevice extends TileEntityDevice implement
             return;
         }
         connection = new Connection(router);
-        counter = 0;
         this.markDirty();
     }
 
@@ -76,20 +170,50 @@ public abstract class TileEntityNetworkDevice extends TileEntityDevice implement
 
     public boolean receiveBeacon(Router router)
     {
-        if(counter >= DeviceConfig.getBeaconInterval() * 2)
+        if(connection == null)
+            return false;
+        if(connection.getRouterId().equals(router.getId()))
         {
-            connect(router);
+            connection.setRouterPos(router.getPos());
             return true;
         }
-        if(connection != null && connection.getRouterId().equals(router.getId()))
+        if(!connection.isConnected())
         {
-            connection.setRouterPos(router.getPos());
-            counter = 0;
+            connect(router);
             return true;
         }
         return false;
     }
 
+    /**
+     * Sends a message to another device on the same router or a router linked to it.
+     *
+     * @param destination the id of the device
+     * @param channel the channel of the message
+     * @param payload the data of the message
+     * @return true if the router accepted the message
+     */
+    public boolean sendMessage(UUID destination, String channel, NBTTagCompound payload)
+    {
+        Router router = getRouter();
+        return router != null && router.send(world, new NetworkMessage(getId(), destination, channel, payload));
+    }
+
+    /**
+     * Called when a message sent to this device is delivered by the router. By default the message
+     * is passed to the handler registered for its channel.
+     *
+     * @param message the message
+     */
+    public void receiveMessage(NetworkMessage message)
+    {
+        NetworkMessage.Handler handler = NetworkMessage.getHandler(message.getChannel());
+        if(handler != null)
+        {
+            handler.onMessage(this, message);
+        }
+    }
+
     public int getSignalStrength()
     {
         BlockPos routerPos = connection.getRouterPos();
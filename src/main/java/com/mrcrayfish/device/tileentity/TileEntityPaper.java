@@ -17,6 +17,11 @@ public class TileEntityPaper extends TileEntitySync
     private IPrint print;
     private byte rotation;
 
+    public TileEntityPaper()
+    {
+        registerSyncField("rotation", (tag, key) -> tag.setByte(key, rotation));
+    }
+
     public void nextRotation()
     {
         rotation++;
@@ -24,8 +29,7 @@ public class TileEntityPaper extends TileEntitySync
         {
             rotation = 0;
         }
-        pipeline.setByte("rotation", rotation);
-        sync();
+        sync("rotation");
         playSound(SoundEvents.ENTITY_ITEMFRAME_ROTATE_ITEM);
     }
 
@@ -74,7 +78,6 @@ public class TileEntityPaper extends TileEntitySync
         {
             tag.setTag("print", IPrint.writeToTag(print));
         }
-        tag.setByte("rotation", rotation);
         return tag;
     }
 
@@ -3,6 +3,7 @@ package com.mrcrayfish.device.tileentity;
 import com.mrcrayfish.device.DeviceConfig;
 import com.mrcrayfish.device.api.print.IPrint;
 import com.mrcrayfish.device.block.BlockPrinter;
+import com.mrcrayfish.device.core.network.NetworkMessage;
 import com.mrcrayfish.device.init.DeviceSounds;
 import com.mrcrayfish.device.util.CollisionHelper;
 import net.minecraft.block.state.IBlockState;
@@ -25,6 +26,8 @@ import static com.mrcrayfish.device.tileentity.TileEntityPrinter.State.*;
  */
 public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
 {
+    public static final String CHANNEL_PRINT = "cdm:print";
+
     private State state = IDLE;
 
     private Deque<IPrint> printQueue = new ArrayDeque<>();
@@ -34,6 +37,17 @@ public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
     private int remainingPrintTime;
     private int paperCount = 0;
 
+    /* The world time the current state started at, only used on the client */
+    private long stateStartTime;
+
+    public TileEntityPrinter()
+    {
+        registerSyncField("state", (tag, key) -> tag.setInteger(key, state.ordinal()));
+        registerSyncField("totalPrintTime", (tag, key) -> tag.setInteger(key, totalPrintTime));
+        registerSyncField("stateStartTime", (tag, key) -> tag.setLong(key, world.getTotalWorldTime() - (totalPrintTime - remainingPrintTime)));
+        registerSyncField("paperCount", (tag, key) -> tag.setInteger(key, paperCount));
+    }
+
     @Override
     public void update()
     {
@@ -41,14 +55,9 @@ public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
         {
             if(remainingPrintTime > 0)
             {
-                if(remainingPrintTime % 20 == 0 || state == LOADING_PAPER)
+                if(remainingPrintTime % 20 == 0 && state == PRINTING)
                 {
-                    pipeline.setInteger("remainingPrintTime", remainingPrintTime);
-                    sync();
-                    if(remainingPrintTime != 0 && state == PRINTING)
-                    {
-                        world.playSound(null, pos, DeviceSounds.PRINTER_PRINTING, SoundCategory.BLOCKS, 0.5F, 1.0F);
-                    }
+                    world.playSound(null, pos, DeviceSounds.PRINTER_PRINTING, SoundCategory.BLOCKS, 0.5F, 1.0F);
                 }
                 remainingPrintTime--;
             }
@@ -57,6 +66,11 @@ public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
                 setState(state.next());
             }
         }
+        else
+        {
+            /* The server only sends when a state starts, so the progress is worked out from the time */
+            remainingPrintTime = (int) Math.max(0, totalPrintTime - (world.getTotalWorldTime() - stateStartTime));
+        }
 
         if(state == IDLE && remainingPrintTime == 0 && currentPrint != null)
         {
@@ -101,6 +115,10 @@ public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
         {
             remainingPrintTime = compound.getInteger("remainingPrintTime");
         }
+        if(compound.hasKey("stateStartTime", Constants.NBT.TAG_LONG))
+        {
+            stateStartTime = compound.getLong("stateStartTime");
+        }
         if(compound.hasKey("state", Constants.NBT.TAG_INT))
         {
             state = State.values()[compound.getInteger("state")];
@@ -144,14 +162,6 @@ public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
         return compound;
     }
 
-    @Override
-    public NBTTagCompound writeSyncTag()
-    {
-        NBTTagCompound tag = super.writeSyncTag();
-        tag.setInteger("paperCount", paperCount);
-        return tag;
-    }
-
     public void setState(State newState)
     {
         if(newState == null)
@@ -175,10 +185,9 @@ public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
         }
         totalPrintTime = remainingPrintTime;
 
-        pipeline.setInteger("state", state.ordinal());
-        pipeline.setInteger("totalPrintTime", totalPrintTime);
-        pipeline.setInteger("remainingPrintTime", remainingPrintTime);
-        sync();
+        sync("state");
+        sync("totalPrintTime");
+        sync("stateStartTime");
     }
 
     public void addToQueue(IPrint print)
@@ -186,6 +195,21 @@ public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
         printQueue.offer(print);
     }
 
+    @Override
+    public void receiveMessage(NetworkMessage message)
+    {
+        if(CHANNEL_PRINT.equals(message.getChannel()))
+        {
+            IPrint print = IPrint.loadFromTag(message.getPayload().getCompoundTag("print"));
+            if(print != null)
+            {
+                addToQueue(print);
+            }
+            return;
+        }
+        super.receiveMessage(message);
+    }
+
     private void print(IPrint print)
     {
         world.playSound(null, pos, DeviceSounds.PRINTER_LOADING_PAPER, SoundCategory.BLOCKS, 0.5F, 1.0F);
@@ -194,9 +218,8 @@ public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
         currentPrint = print;
         paperCount--;
 
-        pipeline.setInteger("paperCount", paperCount);
         pipeline.setTag("currentPrint", IPrint.writeToTag(currentPrint));
-        sync();
+        sync("paperCount");
     }
 
     public boolean isLoading()
@@ -219,6 +242,19 @@ public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
         return remainingPrintTime;
     }
 
+    /**
+     * Gets the remaining time of the current state between ticks. Only used on the client, where
+     * the time is worked out from when the state started rather than sent by the server.
+     *
+     * @param partialTicks the partial ticks
+     * @return the remaining time in ticks
+     */
+    public float getRemainingPrintTime(float partialTicks)
+    {
+        float elapsed = world.getTotalWorldTime() - stateStartTime + partialTicks;
+        return Math.max(0F, Math.min(totalPrintTime, totalPrintTime - elapsed));
+    }
+
     public boolean addPaper(ItemStack stack, boolean addAll)
     {
         if(!stack.isEmpty() && stack.getItem() == Items.PAPER && paperCount < DeviceConfig.getMaxPaperCount())
@@ -234,8 +270,7 @@ public class TileEntityPrinter extends TileEntityNetworkDevice.Colored
                 stack.setCount(Math.max(0, paperCount - 64));
                 paperCount = Math.min(64, paperCount);
             }
-            pipeline.setInteger("paperCount", paperCount);
-            sync();
+            sync("paperCount");
             world.playSound(null, pos, SoundEvents.ENTITY_ITEMFRAME_BREAK, SoundCategory.BLOCKS, 1.0F, 1.0F);
             return true;
         }
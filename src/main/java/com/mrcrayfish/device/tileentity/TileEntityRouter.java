@@ -1,6 +1,12 @@
 package com.mrcrayfish.device.tileentity;
 
+import com.mrcrayfish.device.core.network.DeviceIndex;
+import com.mrcrayfish.device.core.network.NetworkScheduler;
 import com.mrcrayfish.device.core.network.Router;
+import com.mrcrayfish.device.core.network.RouterRegistry;
+import com.mrcrayfish.device.network.PacketHandler;
+import com.mrcrayfish.device.network.task.MessageSyncBlock;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraftforge.common.util.Constants;
@@ -36,9 +42,57 @@ public class TileEntityRouter extends TileEntityDevice.Colored
         else if(debugTimer > 0)
         {
             debugTimer--;
+            if(debugTimer % 20 == 0)
+            {
+                PacketHandler.INSTANCE.sendToServer(new MessageSyncBlock(pos, getRouter().getSequence(), getRouter().getEpoch()));
+            }
         }
     }
 
+    @Override
+    public void onLoad()
+    {
+        if(!world.isRemote)
+        {
+            DeviceIndex.get(world).addRouter(this);
+            RouterRegistry.get(world).onRouterLoaded(this);
+            getRouter().sendBeacon(world);
+            getRouter().joinMesh(world);
+            NetworkScheduler.INSTANCE.schedule(this, () -> getRouter().sendBeacon(world));
+        }
+    }
+
+    @Override
+    public void invalidate()
+    {
+        super.invalidate();
+        if(world != null && !world.isRemote)
+        {
+            getRouter().removeCableLinks(world);
+            unload();
+            RouterRegistry.get(world).onRouterRemoved(this);
+        }
+    }
+
+    @Override
+    public void onChunkUnload()
+    {
+        super.onChunkUnload();
+        if(!world.isRemote)
+        {
+            unload();
+        }
+    }
+
+    private void unload()
+    {
+        NetworkScheduler.INSTANCE.cancel(this);
+        DeviceIndex.get(world).removeRouter(this);
+        RouterRegistry.get(world).onRouterUnloaded(this);
+        getRouter().leaveMesh(world);
+        getRouter().disconnectDevices(world);
+    }
+
     @SideOnly(Side.CLIENT)
     public boolean isDebug()
     {
@@ -80,11 +134,49 @@ public class TileEntityRouter extends TileEntityDevice.Colored
         {
             router = Router.fromTag(pos, compound.getCompoundTag("router"));
         }
+        else if(compound.hasKey("router_delta", Constants.NBT.TAG_COMPOUND))
+        {
+            if(!getRouter().applyDeltaTag(compound.getCompoundTag("router_delta")) && world != null && world.isRemote)
+            {
+                PacketHandler.INSTANCE.sendToServer(new MessageSyncBlock(pos));
+            }
+        }
     }
 
     public void syncDevicesToClient()
     {
-        pipeline.setTag("router", getRouter().toTag(true));
+        pipeline.setTag("router", getRouter().toSyncTag());
+        sync();
+    }
+
+    /**
+     * Sends the devices of this router to a client. If the client already has the devices up to
+     * a sequence of the same epoch, only the changes since then are sent, and only to that
+     * client since other clients may be at a different sequence. Otherwise every device is sent
+     * to all clients watching the router.
+     *
+     * @param player the player asking for the devices
+     * @param since the sequence the client has, or -1 for every device
+     * @param epoch the epoch of the sequence
+     */
+    public void syncDevicesToClient(EntityPlayerMP player, long since, int epoch)
+    {
+        Router router = getRouter();
+        if(since >= 0 && epoch == router.getEpoch())
+        {
+            if(since == router.getSequence())
+                return;
+
+            NBTTagCompound deltaTag = router.toDeltaTag(since);
+            if(deltaTag != null)
+            {
+                NBTTagCompound tag = new NBTTagCompound();
+                tag.setTag("router_delta", deltaTag);
+                sendTo(player, tag);
+                return;
+            }
+        }
+        pipeline.setTag("router", router.toSyncTag());
         sync();
     }
 
@@ -1,40 +1,145 @@
 package com.mrcrayfish.device.tileentity;
 
 import com.mrcrayfish.device.util.TileEntityUtil;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.play.server.SPacketUpdateTileEntity;
+import net.minecraft.server.management.PlayerChunkMapEntry;
 import net.minecraft.tileentity.TileEntity;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
 
 /**
+ * A tile entity that keeps the clients watching it up to date. The values sent to clients are
+ * declared as sync fields, and changing one only marks it as dirty. At the end of the tick the
+ * dirty fields and anything put in the {@link #pipeline} are sent as a single delta packet, so
+ * multiple changes in the same tick cost one packet. The full state is only sent when a client
+ * starts watching the chunk.
+ *
  * Author: MrCrayfish
  */
 public abstract class TileEntitySync extends TileEntity
 {
     protected NBTTagCompound pipeline = new NBTTagCompound();
 
+    private final SyncFields syncFields = new SyncFields();
+
+    /* Only used on the client, created when the first packet is received */
+    private SyncRate syncRate;
+
+    /**
+     * Declares a value that is sent to clients. Declared fields are included in the full state
+     * and are sent on their own when marked dirty with {@link #sync(String)}. Should be called
+     * from the constructor.
+     *
+     * @param key the key of the value in the tag, as read by {@link #readFromNBT(NBTTagCompound)}
+     * @param writer writes the current value to a tag
+     */
+    protected final void registerSyncField(String key, SyncField.Writer writer)
+    {
+        syncFields.register(key, writer);
+    }
+
+    /**
+     * Marks a declared field as changed. The value is read when the delta is sent at the end of
+     * the tick, so changing the same field multiple times in a tick only sends the last value.
+     *
+     * @param key the key of the field
+     */
+    public void sync(String key)
+    {
+        syncFields.markDirty(key);
+        sync();
+    }
+
+    /**
+     * Queues the dirty fields and the pipeline to be sent to clients at the end of the tick.
+     */
     public void sync()
     {
-        TileEntityUtil.markBlockForUpdate(world, pos);
+        if(world == null)
+            return;
+
+        if(world.isRemote)
+        {
+            TileEntityUtil.markBlockForUpdate(world, pos);
+            return;
+        }
+        TileEntitySyncManager.INSTANCE.queue(this);
+    }
+
+    /**
+     * Sends the dirty fields and the pipeline to the players watching the chunk of this tile
+     * entity. Called by {@link TileEntitySyncManager} at the end of a tick.
+     */
+    void flushSync()
+    {
+        NBTTagCompound delta = collectDelta();
+        if(delta.hasNoTags() || isInvalid())
+            return;
+
         markDirty();
+
+        PlayerChunkMapEntry entry = ((WorldServer) world).getPlayerChunkMap().getEntry(pos.getX() >> 4, pos.getZ() >> 4);
+        if(entry != null && entry.isSentToPlayers())
+        {
+            entry.sendPacket(new SPacketUpdateTileEntity(pos, 0, super.writeToNBT(delta)));
+        }
+    }
+
+    /**
+     * Sends a delta to a single player instead of everyone watching this tile entity. Used for
+     * changes that depend on what that player already has.
+     *
+     * @param player the player to send the delta to
+     * @param delta the values to send
+     */
+    protected void sendTo(EntityPlayerMP player, NBTTagCompound delta)
+    {
+        player.connection.sendPacket(new SPacketUpdateTileEntity(pos, 0, super.writeToNBT(delta)));
+    }
+
+    /**
+     * Takes the pipeline and the dirty fields as a delta. The pipeline is emptied and the fields
+     * are no longer dirty afterwards.
+     *
+     * @return the delta, empty if nothing changed
+     */
+    NBTTagCompound collectDelta()
+    {
+        NBTTagCompound delta = pipeline;
+        pipeline = new NBTTagCompound();
+        syncFields.writeDirty(delta);
+        return delta;
     }
 
     @Override
     public void onDataPacket(NetworkManager net, SPacketUpdateTileEntity pkt)
     {
-        this.readFromNBT(pkt.getNbtCompound());
+        NBTTagCompound tag = pkt.getNbtCompound();
+        getSyncRate().record(tag);
+        this.readFromNBT(tag);
     }
 
+    @Override
+    public void handleUpdateTag(NBTTagCompound tag)
+    {
+        getSyncRate().record(tag);
+        super.handleUpdateTag(tag);
+    }
+
+    /**
+     * Gets the full state sent to clients when they start watching the chunk of this tile
+     * entity.
+     */
     @Override
     public final NBTTagCompound getUpdateTag()
     {
-        if(!pipeline.hasNoTags())
-        {
-            NBTTagCompound updateTag = super.writeToNBT(pipeline);
-            pipeline = new NBTTagCompound();
-            return updateTag;
-        }
-        return super.writeToNBT(writeSyncTag());
+        NBTTagCompound tag = writeSyncTag();
+        syncFields.writeAll(tag);
+        return super.writeToNBT(tag);
     }
 
     public abstract NBTTagCompound writeSyncTag();
@@ -49,4 +154,40 @@ public abstract class TileEntitySync extends TileEntity
     {
         return pipeline;
     }
+
+    /**
+     * Gets the amount of bytes per second this tile entity has received from the server over the
+     * last second.
+     */
+    @SideOnly(Side.CLIENT)
+    public int getSyncBytesPerSecond()
+    {
+        return getSyncRate().getBytesPerSecond();
+    }
+
+    private SyncRate getSyncRate()
+    {
+        if(syncRate == null)
+        {
+            syncRate = new SyncRate();
+        }
+        return syncRate;
+    }
+
+    public static class SyncField
+    {
+        final String key;
+        final Writer writer;
+
+        SyncField(String key, Writer writer)
+        {
+            this.key = key;
+            this.writer = writer;
+        }
+
+        public interface Writer
+        {
+            void write(NBTTagCompound tag, String key);
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package com.mrcrayfish.device.tileentity;
+
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends the changes of tile entities to clients at the end of each server tick. Tile entities
+ * can be queued from any thread, and a tile entity queued multiple times in a tick is only sent
+ * once.
+ *
+ * Author: MrCrayfish
+ */
+public class TileEntitySyncManager
+{
+    public static final TileEntitySyncManager INSTANCE = new TileEntitySyncManager();
+
+    private final Set<TileEntitySync> pending = ConcurrentHashMap.newKeySet();
+
+    private TileEntitySyncManager() {}
+
+    void queue(TileEntitySync tileEntity)
+    {
+        pending.add(tileEntity);
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if(event.phase != TickEvent.Phase.END || pending.isEmpty())
+            return;
+
+        Iterator<TileEntitySync> it = pending.iterator();
+        while(it.hasNext())
+        {
+            TileEntitySync tileEntity = it.next();
+            it.remove();
+            tileEntity.flushSync();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.mrcrayfish.device.core.io;
+
+import com.mrcrayfish.device.DeviceConfig;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Author: MrCrayfish
+ */
+public class FileCacheTest
+{
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static final UUID DRIVE = UUID.randomUUID();
+
+    private final FileCache cache = FileCache.INSTANCE;
+
+    @BeforeClass
+    public static void loadConfig() throws IOException
+    {
+        /* A budget of one kilobyte fits two of the file lists below */
+        File file = FOLDER.newFile("cdm.cfg");
+        Files.write(file.toPath(), Collections.singletonList("laptop-settings {\n    I:fileCacheSize=1\n}"), StandardCharsets.UTF_8);
+        DeviceConfig.load(file);
+    }
+
+    @Before
+    public void setup()
+    {
+        cache.clear();
+    }
+
+    @Test
+    public void getReturnsCopy()
+    {
+        cache.put(DRIVE, "/Home", createFiles(0), 1);
+        NBTTagList files = cache.get(DRIVE, "/Home");
+        assertEquals(createFiles(0), files);
+
+        files.removeTag(0);
+        assertEquals(createFiles(0), cache.get(DRIVE, "/Home"));
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed()
+    {
+        cache.put(DRIVE, "/First", createFiles(0), 1);
+        cache.put(DRIVE, "/Second", createFiles(1), 1);
+        assertNotNull(cache.get(DRIVE, "/First"));
+
+        cache.put(DRIVE, "/Third", createFiles(2), 1);
+        assertNull(cache.get(DRIVE, "/Second"));
+        assertNotNull(cache.get(DRIVE, "/First"));
+        assertNotNull(cache.get(DRIVE, "/Third"));
+    }
+
+    @Test
+    public void stayWithinBudget()
+    {
+        for(int i = 0; i < 16; i++)
+        {
+            cache.put(DRIVE, "/Folder " + i, createFiles(i), 1);
+            assertTrue(cache.getResidentSize() <= cache.getBudget());
+        }
+        assertEquals(2, cache.getEntryCount());
+    }
+
+    @Test
+    public void skipEntryLargerThanBudget()
+    {
+        NBTTagList files = new NBTTagList();
+        for(int i = 0; i < 8; i++)
+        {
+            files.appendTag(createFile(i));
+        }
+        cache.put(DRIVE, "/Home", files, 1);
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getResidentSize());
+    }
+
+    @Test
+    public void discardOlderVersion()
+    {
+        cache.put(DRIVE, "/Home", createFiles(0), 1);
+        cache.updateVersion(DRIVE, 2);
+        assertNull(cache.get(DRIVE, "/Home"));
+        assertEquals(0, cache.getResidentSize());
+    }
+
+    @Test
+    public void invalidateTree()
+    {
+        cache.put(DRIVE, "/Home", createFiles(0), 1);
+        cache.put(DRIVE, "/Home/Notes", createFiles(1), 1);
+        cache.invalidateTree(DRIVE, "/Home");
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getResidentSize());
+    }
+
+    /**
+     * Creates a file list of about 400 bytes
+     */
+    private static NBTTagList createFiles(int seed)
+    {
+        NBTTagList files = new NBTTagList();
+        files.appendTag(createFile(seed));
+        return files;
+    }
+
+    private static NBTTagCompound createFile(int seed)
+    {
+        NBTTagCompound file = new NBTTagCompound();
+        file.setString("file_name", "File " + seed);
+        file.setByteArray("data", new byte[360]);
+        return file;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mrcrayfish.device.core.io;
+
+import net.minecraft.nbt.NBTTagCompound;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Author: MrCrayfish
+ */
+public class PackedDataTest
+{
+    @After
+    public void clearCache()
+    {
+        PackedData.clearCache();
+    }
+
+    @Test
+    public void unpackReturnsPackedTag()
+    {
+        NBTTagCompound tag = createData(0, 64);
+        assertEquals(tag, PackedData.unpack(PackedData.pack(tag)));
+        assertEquals(tag, PackedData.unpackUncached(PackedData.pack(tag)));
+    }
+
+    @Test
+    public void unpackReturnsCopy()
+    {
+        byte[] packed = PackedData.pack(createData(0, 64));
+        PackedData.unpack(packed).setInteger("seed", 1);
+        assertEquals(createData(0, 64), PackedData.unpack(packed));
+    }
+
+    @Test
+    public void unpackEmptyData()
+    {
+        assertTrue(PackedData.unpack(new byte[0]).hasNoTags());
+    }
+
+    @Test
+    public void verifyWithinLimit()
+    {
+        byte[] packed = PackedData.pack(createData(0, 1024));
+        assertTrue(PackedData.verify(packed, 64 * 1024));
+    }
+
+    @Test
+    public void verifyOverLimit()
+    {
+        byte[] packed = PackedData.pack(createData(0, 65536));
+        assertFalse(PackedData.verify(packed, 64 * 1024));
+    }
+
+    @Test
+    public void verifyInvalidData()
+    {
+        assertFalse(PackedData.verify(new byte[] {1, 2, 3, 4}, 4096));
+        assertFalse(PackedData.verify(new byte[0], 4096));
+    }
+
+    @Test
+    public void cacheStaysWithinBudget()
+    {
+        int size = 256 * 1024;
+        int count = (int) (PackedData.CACHE_BUDGET / size) * 2;
+        for(int i = 0; i < count; i++)
+        {
+            PackedData.unpack(PackedData.pack(createData(i, size)));
+            assertTrue(PackedData.getCachedSize() <= PackedData.CACHE_BUDGET);
+        }
+        assertTrue(PackedData.getCachedSize() > 0);
+    }
+
+    @Test
+    public void tagLargerThanBudgetIsNotCached()
+    {
+        NBTTagCompound tag = createData(0, (int) PackedData.CACHE_BUDGET + 1);
+        assertEquals(tag, PackedData.unpack(PackedData.pack(tag)));
+        assertEquals(0, PackedData.getCachedSize());
+    }
+
+    private static NBTTagCompound createData(int seed, int size)
+    {
+        byte[] content = new byte[size];
+        for(int i = 0; i < size; i++)
+        {
+            content[i] = (byte) (seed + i);
+        }
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setInteger("seed", seed);
+        tag.setByteArray("content", content);
+        return tag;
+    }
+}
@@ -0,0 +1,118 @@
+package com.mrcrayfish.device.core.network;
+
+import com.mrcrayfish.device.DeviceConfig;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Author: MrCrayfish
+ */
+public class RouterDeltaTest
+{
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private Router server;
+    private Router client;
+
+    @BeforeClass
+    public static void loadConfig() throws IOException
+    {
+        DeviceConfig.load(FOLDER.newFile("cdm.cfg"));
+    }
+
+    @Before
+    public void setup()
+    {
+        server = new Router(BlockPos.ORIGIN);
+        server.addDevice(UUID.randomUUID(), "First");
+        server.addDevice(UUID.randomUUID(), "Second");
+        client = Router.fromTag(BlockPos.ORIGIN, server.toSyncTag());
+    }
+
+    @Test
+    public void syncTagKeepsSequence()
+    {
+        assertEquals(server.getEpoch(), client.getEpoch());
+        assertEquals(server.getSequence(), client.getSequence());
+        assertEquals(2, client.getNetworkDevices().size());
+    }
+
+    @Test
+    public void applyDelta()
+    {
+        UUID id = UUID.randomUUID();
+        server.addDevice(id, "Third");
+
+        NBTTagCompound delta = server.toDeltaTag(client.getSequence());
+        assertNotNull(delta);
+        assertTrue(client.applyDeltaTag(delta));
+        assertTrue(client.hasDevice(id));
+        assertEquals(server.getSequence(), client.getSequence());
+    }
+
+    @Test
+    public void applyOldDelta()
+    {
+        NBTTagCompound delta = server.toDeltaTag(client.getSequence() - 1);
+        assertNotNull(delta);
+        assertTrue(client.applyDeltaTag(delta));
+        assertEquals(server.getSequence(), client.getSequence());
+        assertEquals(2, client.getNetworkDevices().size());
+    }
+
+    @Test
+    public void rejectSequenceGap()
+    {
+        long sequence = client.getSequence();
+        server.addDevice(UUID.randomUUID(), "Third");
+        server.addDevice(UUID.randomUUID(), "Fourth");
+
+        /* The client missed the change that came right after its sequence */
+        NBTTagCompound delta = server.toDeltaTag(sequence + 1);
+        assertNotNull(delta);
+        assertFalse(client.applyDeltaTag(delta));
+        assertEquals(sequence, client.getSequence());
+    }
+
+    @Test
+    public void rejectOtherEpoch()
+    {
+        /* Loading the router again starts a new epoch with the same id */
+        Router reloaded = Router.fromTag(BlockPos.ORIGIN, server.toTag(false));
+        assertEquals(server.getId(), reloaded.getId());
+        reloaded.addDevice(UUID.randomUUID(), "Third");
+
+        NBTTagCompound delta = reloaded.toDeltaTag(0);
+        assertNotNull(delta);
+        assertFalse(client.applyDeltaTag(delta));
+    }
+
+    @Test
+    public void rejectOtherRouter()
+    {
+        Router other = new Router(BlockPos.ORIGIN);
+        other.addDevice(UUID.randomUUID(), "Other");
+        assertFalse(client.applyDeltaTag(other.toDeltaTag(0)));
+    }
+
+    @Test
+    public void noDeltaAheadOfServer()
+    {
+        assertNull(server.toDeltaTag(server.getSequence() + 1));
+    }
+}
@@ -0,0 +1,111 @@
+package com.mrcrayfish.device.tileentity;
+
+import net.minecraft.nbt.NBTTagCompound;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Author: MrCrayfish
+ */
+public class SyncFieldsTest
+{
+    private SyncFields fields;
+    private int first;
+    private int second;
+
+    @Before
+    public void setup()
+    {
+        fields = new SyncFields();
+        fields.register("first", (tag, key) -> tag.setInteger(key, first));
+        fields.register("second", (tag, key) -> tag.setInteger(key, second));
+    }
+
+    @Test
+    public void writeOnlyDirtyFields()
+    {
+        first = 1;
+        fields.markDirty("first");
+        assertTrue(fields.isDirty());
+
+        NBTTagCompound tag = new NBTTagCompound();
+        fields.writeDirty(tag);
+        assertEquals(1, tag.getInteger("first"));
+        assertFalse(tag.hasKey("second"));
+    }
+
+    @Test
+    public void clearAfterWrite()
+    {
+        fields.markDirty("first");
+        fields.writeDirty(new NBTTagCompound());
+        assertFalse(fields.isDirty());
+
+        NBTTagCompound tag = new NBTTagCompound();
+        fields.writeDirty(tag);
+        assertTrue(tag.hasNoTags());
+    }
+
+    @Test
+    public void writeLatestValue()
+    {
+        first = 1;
+        fields.markDirty("first");
+        first = 2;
+        fields.markDirty("first");
+
+        NBTTagCompound tag = new NBTTagCompound();
+        fields.writeDirty(tag);
+        assertEquals(2, tag.getInteger("first"));
+    }
+
+    @Test
+    public void writeAllFields()
+    {
+        first = 1;
+        second = 2;
+        NBTTagCompound tag = new NBTTagCompound();
+        fields.writeAll(tag);
+        assertEquals(1, tag.getInteger("first"));
+        assertEquals(2, tag.getInteger("second"));
+        assertFalse(fields.isDirty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectUnknownField()
+    {
+        fields.markDirty("third");
+    }
+
+    @Test
+    public void lastFieldUsesHighestBit()
+    {
+        SyncFields fields = new SyncFields();
+        for(int i = 0; i < SyncFields.MAX_SYNC_FIELDS; i++)
+        {
+            int value = i;
+            fields.register("field" + i, (tag, key) -> tag.setInteger(key, value));
+        }
+        String last = "field" + (SyncFields.MAX_SYNC_FIELDS - 1);
+        fields.markDirty(last);
+
+        NBTTagCompound tag = new NBTTagCompound();
+        fields.writeDirty(tag);
+        assertEquals(1, tag.getKeySet().size());
+        assertEquals(SyncFields.MAX_SYNC_FIELDS - 1, tag.getInteger(last));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectTooManyFields()
+    {
+        SyncFields fields = new SyncFields();
+        for(int i = 0; i <= SyncFields.MAX_SYNC_FIELDS; i++)
+        {
+            fields.register("field" + i, (tag, key) -> {});
+        }
+    }
+}